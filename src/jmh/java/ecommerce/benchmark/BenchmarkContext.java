@@ -0,0 +1,80 @@
+package ecommerce.benchmark;
+
+import ecommerce.EcommerceApplication;
+import ecommerce.dto.UserRegistrationRequest;
+import ecommerce.entity.Category;
+import ecommerce.entity.Product;
+import ecommerce.repository.CategoryRepository;
+import ecommerce.repository.ProductRepository;
+import ecommerce.search.ProductSearchIndex;
+import ecommerce.service.UserService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// Starts the application against an in-memory H2 database in MySQL mode, without a web server for the
+// JMH benchmarks and on a random port for the load test
+final class BenchmarkContext {
+
+    private static final String[] WORDS = {"java", "spring", "kotlin", "coffee", "desk", "lamp", "chair", "book",
+            "monitor", "keyboard", "mouse", "cable", "bag", "bottle", "phone", "case"};
+
+    private BenchmarkContext() {}
+
+    static ConfigurableApplicationContext start(String database, String... properties) {
+        return run(WebApplicationType.NONE, database, properties);
+    }
+
+    static ConfigurableApplicationContext startServer(String database, String... properties) {
+        List<String> args = new ArrayList<>(List.of(properties));
+        args.add("--server.port=0");
+        return run(WebApplicationType.SERVLET, database, args.toArray(new String[0]));
+    }
+
+    private static ConfigurableApplicationContext run(WebApplicationType type, String database, String... properties) {
+        SpringApplication application = new SpringApplication(EcommerceApplication.class);
+        application.setWebApplicationType(type);
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN"));
+        args.addAll(List.of(properties));
+        return application.run(args.toArray(new String[0]));
+    }
+
+    static List<Product> seedCatalog(ConfigurableApplicationContext context, int count) {
+        Category category = new Category();
+        category.setName("Benchmark");
+        category = context.getBean(CategoryRepository.class).save(category);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setName(WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i);
+            product.setDescription("A " + WORDS[(i * 7) % WORDS.length] + " for every " + WORDS[(i * 3) % WORDS.length]);
+            product.setPrice(BigDecimal.valueOf(5 + i % 100, 0));
+            product.setStockQuantity(Integer.MAX_VALUE / 2);
+            product.setCategory(category);
+            products.add(product);
+        }
+        products = context.getBean(ProductRepository.class).saveAll(products);
+        context.getBean(ProductSearchIndex.class).rebuild();
+        return products;
+    }
+
+    static Long registerUser(ConfigurableApplicationContext context, String username) {
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setUsername(username);
+        request.setEmail(username + "@example.com");
+        request.setPassword("benchmark");
+        request.setFirstName("Bench");
+        request.setLastName("Mark");
+        return context.getBean(UserService.class).registerUser(request).getId();
+    }
+}
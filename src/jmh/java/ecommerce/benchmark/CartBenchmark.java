@@ -0,0 +1,100 @@
+package ecommerce.benchmark;
+
+import ecommerce.dto.AddToCartRequest;
+import ecommerce.dto.CartResponse;
+import ecommerce.entity.Product;
+import ecommerce.metrics.SqlStatistics;
+import ecommerce.service.CartService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Cart operations through CartService with the write-behind store and the write-through store. The
+// statements and operations counters give the database round trips per operation on the request path;
+// the write-behind store's interval flush runs on its own thread and is not included.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartBenchmark {
+
+    private static final int CART_SIZE = 10;
+
+    @Param({"memory", "jpa"})
+    public String store;
+
+    private ConfigurableApplicationContext context;
+    private CartService cartService;
+    private List<Product> products;
+    private Long userId;
+    private Long quantityUserId;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("cart-" + store, "--ecommerce.cart.store=" + store);
+        products = BenchmarkContext.seedCatalog(context, 100);
+        userId = BenchmarkContext.registerUser(context, "cart-user");
+        quantityUserId = BenchmarkContext.registerUser(context, "quantity-user");
+        cartService = context.getBean(CartService.class);
+
+        // Start with the lines addAndRemove expects to drop first
+        for (int i = products.size() - CART_SIZE; i < products.size(); i++) {
+            add(userId, products.get(i));
+        }
+        add(quantityUserId, products.get(0));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CartResponse getCart(RoundTrips roundTrips) {
+        return roundTrips.count(1, () -> cartService.getCartByUserId(userId));
+    }
+
+    // Adds a line and drops the oldest one, so the cart stays at CART_SIZE lines
+    @Benchmark
+    public CartResponse addAndRemove(RoundTrips roundTrips) {
+        int slot = next++;
+        return roundTrips.count(2, () -> {
+            add(userId, products.get(slot % products.size()));
+            return cartService.removeFromCart(userId, products.get((slot + products.size() - CART_SIZE) % products.size()).getId());
+        });
+    }
+
+    @Benchmark
+    public CartResponse updateQuantity(RoundTrips roundTrips) {
+        return roundTrips.count(1, () -> cartService.updateCartItem(quantityUserId, products.get(0).getId(), 1 + (next++ & 7)));
+    }
+
+    private CartResponse add(Long cartUserId, Product product) {
+        AddToCartRequest request = new AddToCartRequest();
+        request.setProductId(product.getId());
+        request.setQuantity(1);
+        return cartService.addToCart(cartUserId, request);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long statements;
+        public long operations;
+
+        <T> T count(int cartOperations, Supplier<T> action) {
+            SqlStatistics stats = SqlStatistics.current();
+            long before = stats.getStatements();
+            T result = action.get();
+            statements += stats.getStatements() - before;
+            operations += cartOperations;
+            return result;
+        }
+    }
+}
\ No newline at end of file
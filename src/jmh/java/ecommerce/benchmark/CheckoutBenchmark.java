@@ -0,0 +1,80 @@
+package ecommerce.benchmark;
+
+import ecommerce.dto.AddToCartRequest;
+import ecommerce.dto.OrderCreateRequest;
+import ecommerce.dto.OrderResponse;
+import ecommerce.entity.Product;
+import ecommerce.metrics.SqlStatistics;
+import ecommerce.service.CartService;
+import ecommerce.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The full OrderServiceImpl.createOrder flow: cart flush, stock reservation, order and item inserts,
+// sales rollups, outbox rows and clearing the cart. The cart is refilled outside the measurement. The
+// statements and orders counters give the round trips per checkout, which should not grow with items.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckoutBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int items;
+
+    private ConfigurableApplicationContext context;
+    private CartService cartService;
+    private OrderService orderService;
+    private List<Product> products;
+    private Long userId;
+    private OrderCreateRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("checkout");
+        products = BenchmarkContext.seedCatalog(context, 100);
+        userId = BenchmarkContext.registerUser(context, "checkout-user");
+        cartService = context.getBean(CartService.class);
+        orderService = context.getBean(OrderService.class);
+
+        request = new OrderCreateRequest();
+        request.setShippingAddress("1 Main Street");
+    }
+
+    @Setup(Level.Invocation)
+    public void fillCart() {
+        for (int i = 0; i < items; i++) {
+            AddToCartRequest line = new AddToCartRequest();
+            line.setProductId(products.get(i).getId());
+            line.setQuantity(1);
+            cartService.addToCart(userId, line);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderResponse createOrder(RoundTrips roundTrips) {
+        SqlStatistics stats = SqlStatistics.current();
+        long before = stats.getStatements();
+        OrderResponse order = orderService.createOrder(userId, request);
+        roundTrips.statements += stats.getStatements() - before;
+        roundTrips.orders++;
+        return order;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long statements;
+        public long orders;
+    }
+}
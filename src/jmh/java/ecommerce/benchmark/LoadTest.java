@@ -0,0 +1,218 @@
+package ecommerce.benchmark;
+
+import ecommerce.dto.AddToCartRequest;
+import ecommerce.dto.OrderCreateRequest;
+import ecommerce.entity.Product;
+import ecommerce.security.JwtTokenProvider;
+import ecommerce.service.CartService;
+import ecommerce.service.OrderService;
+import ecommerce.service.UserService;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop HTTP load test: each client sends GET /api/orders/{id}, a JDBC read behind JWT auth, and
+// sends its next request as soon as the response arrives. It runs the application once on platform
+// Tomcat threads and once on virtual threads (Java 21+) and reports throughput and latency percentiles
+// over the measurement window. Client and server share the JVM, so the client's cost is in the numbers
+// of both runs alike.
+//
+// Options, as --name=value: clients (5000), warmup (PT10S), duration (PT30S), orders (100),
+// threads (platform,virtual)
+public final class LoadTest {
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(Map.of(
+                "clients", "5000", "warmup", "PT10S", "duration", "PT30S", "orders", "100",
+                "threads", "platform,virtual"));
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "true");
+        }
+        int clients = Integer.parseInt(options.get("clients"));
+        Duration warmup = Duration.parse(options.get("warmup"));
+        Duration duration = Duration.parse(options.get("duration"));
+        int orders = Integer.parseInt(options.get("orders"));
+
+        List<String> rows = new ArrayList<>();
+        for (String threads : options.get("threads").split(",")) {
+            boolean virtual = threads.equals("virtual");
+            if (virtual && Runtime.version().feature() < 21) {
+                System.out.println("Skipping virtual threads: they need Java 21, this is " + Runtime.version());
+                continue;
+            }
+            rows.add(String.format("%-9s %s", threads, run(virtual, clients, warmup, duration, orders)));
+        }
+
+        System.out.println();
+        System.out.printf("%-9s %7s %9s %10s %8s %8s %8s %7s%n",
+                "threads", "clients", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "errors");
+        rows.forEach(System.out::println);
+    }
+
+    private static String run(boolean virtual, int clients, Duration warmup, Duration duration, int orders)
+            throws Exception {
+        try (ConfigurableApplicationContext context = BenchmarkContext.startServer("load-" + virtual,
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--server.tomcat.max-connections=" + (clients + 100),
+                "--ecommerce.security.password.bcrypt-strength=4")) {
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            List<Long> orderIds = placeOrders(context, orders);
+            Long userId = BenchmarkContext.registerUser(context, "load-reader");
+            String token = context.getBean(JwtTokenProvider.class)
+                    .createToken(context.getBean(UserService.class).findUserEntityById(userId));
+
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            List<HttpRequest> requests = new ArrayList<>(orderIds.size());
+            for (Long orderId : orderIds) {
+                requests.add(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/orders/" + orderId))
+                        .header("Authorization", "Bearer " + token)
+                        .timeout(Duration.ofSeconds(60))
+                        .build());
+            }
+
+            Run run = new Run(httpClient, requests, clients);
+            run.start();
+            Thread.sleep(warmup.toMillis());
+            run.measuring = true;
+            long started = System.nanoTime();
+            Thread.sleep(duration.toMillis());
+            run.measuring = false;
+            double seconds = (System.nanoTime() - started) / 1e9;
+            run.stop();
+
+            long[] latencies = run.latencies();
+            Arrays.sort(latencies);
+            return String.format("%7d %9d %10.0f %8.1f %8.1f %8.1f %7d", clients, latencies.length,
+                    latencies.length / seconds, percentile(latencies, 0.50), percentile(latencies, 0.99),
+                    percentile(latencies, 0.999), run.errors.get());
+        }
+    }
+
+    private static List<Long> placeOrders(ConfigurableApplicationContext context, int count) {
+        List<Product> products = BenchmarkContext.seedCatalog(context, 20);
+        Long userId = BenchmarkContext.registerUser(context, "load-buyer");
+        CartService cartService = context.getBean(CartService.class);
+        OrderService orderService = context.getBean(OrderService.class);
+        OrderCreateRequest order = new OrderCreateRequest();
+        order.setShippingAddress("1 Load Lane");
+
+        List<Long> orderIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            for (int line = 0; line < 3; line++) {
+                AddToCartRequest item = new AddToCartRequest();
+                item.setProductId(products.get((i + line) % products.size()).getId());
+                item.setQuantity(1);
+                cartService.addToCart(userId, item);
+            }
+            orderIds.add(orderService.createOrder(userId, order).getId());
+        }
+        return orderIds;
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1e6;
+    }
+
+    private static class Run {
+        private final HttpClient httpClient;
+        private final List<HttpRequest> requests;
+        private final Client[] clients;
+        private final CountDownLatch stopped;
+        private final AtomicLong errors = new AtomicLong();
+        private volatile boolean measuring;
+        private volatile boolean running = true;
+
+        private Run(HttpClient httpClient, List<HttpRequest> requests, int clientCount) {
+            this.httpClient = httpClient;
+            this.requests = requests;
+            this.clients = new Client[clientCount];
+            this.stopped = new CountDownLatch(clientCount);
+        }
+
+        private void start() {
+            for (int i = 0; i < clients.length; i++) {
+                clients[i] = new Client(i);
+                clients[i].send();
+            }
+        }
+
+        private void stop() throws InterruptedException {
+            running = false;
+            if (!stopped.await(2, TimeUnit.MINUTES)) {
+                System.out.println("Some clients were still waiting for a response after two minutes");
+            }
+        }
+
+        private long[] latencies() {
+            long[] all = new long[Arrays.stream(clients).mapToInt(client -> client.count).sum()];
+            int offset = 0;
+            for (Client client : clients) {
+                System.arraycopy(client.latencies, 0, all, offset, client.count);
+                offset += client.count;
+            }
+            return all;
+        }
+
+        // One request in flight at a time, so each client only ever touches its own latencies
+        private class Client {
+            private int next;
+            private long[] latencies = new long[1024];
+            private int count;
+
+            private Client(int index) {
+                this.next = index;
+            }
+
+            private void send() {
+                if (!running) {
+                    stopped.countDown();
+                    return;
+                }
+                HttpRequest request = requests.get(next++ % requests.size());
+                boolean measured = measuring;
+                long sent = System.nanoTime();
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, failure) -> {
+                            long latency = System.nanoTime() - sent;
+                            if (failure != null || response.statusCode() != 200) {
+                                if (measured) {
+                                    errors.incrementAndGet();
+                                }
+                            } else if (measured && measuring) {
+                                record(latency);
+                            }
+                            send();
+                        });
+            }
+
+            private void record(long latency) {
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = latency;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+package ecommerce.benchmark;
+
+import ecommerce.cart.CartLine;
+import ecommerce.cart.CartState;
+import ecommerce.dto.CartResponse;
+import ecommerce.dto.OrderResponse;
+import ecommerce.dto.ProductResponse;
+import ecommerce.entity.Category;
+import ecommerce.entity.Order;
+import ecommerce.entity.OrderItem;
+import ecommerce.entity.OrderStatus;
+import ecommerce.entity.Product;
+import ecommerce.entity.User;
+import ecommerce.util.CartMapper;
+import ecommerce.util.OrderMapper;
+import ecommerce.util.ProductMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int items;
+
+    private final OrderMapper orderMapper = new OrderMapper();
+    private final CartMapper cartMapper = new CartMapper();
+    private final ProductMapper productMapper = new ProductMapper();
+
+    private Order order;
+    private CartState cart;
+    private Map<Long, ProductResponse> productsById;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        Category category = new Category();
+        category.setId(1L);
+        category.setName("Books");
+
+        User user = new User();
+        user.setId(1L);
+        user.setFirstName("Ada");
+        user.setLastName("Lovelace");
+
+        order = new Order();
+        order.setId(1L);
+        order.setUser(user);
+        order.setStatus(OrderStatus.PENDING);
+        order.setShippingAddress("1 Main Street");
+        order.setOrderDate(LocalDateTime.now());
+
+        cart = new CartState(1L, 1L);
+        productsById = new HashMap<>();
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (long i = 1; i <= items; i++) {
+            Product itemProduct = new Product();
+            itemProduct.setId(i);
+            itemProduct.setName("Product " + i);
+            itemProduct.setDescription("Description " + i);
+            itemProduct.setPrice(BigDecimal.valueOf(1999, 2));
+            itemProduct.setStockQuantity(100);
+            itemProduct.setImageUrl("https://example.com/" + i + ".png");
+            itemProduct.setCategory(category);
+
+            OrderItem orderItem = new OrderItem();
+            orderItem.setId(i);
+            orderItem.setOrder(order);
+            orderItem.setProduct(itemProduct);
+            orderItem.setQuantity(2);
+            orderItem.setUnitPrice(itemProduct.getPrice());
+            orderItem.setTotalPrice(itemProduct.getPrice().multiply(BigDecimal.valueOf(2)));
+            orderItems.add(orderItem);
+
+            cart.putLine(new CartLine(i, i, 2, itemProduct.getPrice(), orderItem.getTotalPrice()));
+            productsById.put(i, productMapper.toResponse(itemProduct));
+            product = itemProduct;
+        }
+        cart.recalculateTotal();
+        order.setOrderItems(orderItems);
+        order.setTotalAmount(cart.getTotalAmount());
+    }
+
+    @Benchmark
+    public OrderResponse orderToResponse() {
+        return orderMapper.toResponse(order);
+    }
+
+    @Benchmark
+    public CartResponse cartToResponse() {
+        return cartMapper.toResponse(cart, productsById);
+    }
+
+    @Benchmark
+    public ProductResponse productToResponse() {
+        return productMapper.toResponse(product);
+    }
+}
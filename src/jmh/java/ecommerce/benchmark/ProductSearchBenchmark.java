@@ -0,0 +1,66 @@
+package ecommerce.benchmark;
+
+import ecommerce.dto.ProductResponse;
+import ecommerce.entity.Product;
+import ecommerce.repository.ProductRepository;
+import ecommerce.service.ProductService;
+import ecommerce.util.ProductMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Compares the in-memory search index behind ProductService.searchProducts with the LIKE query it replaced
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    @Param({"10000"})
+    private int products;
+
+    @Param({"java", "desk lamp", "key"})
+    private String keyword;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductRepository productRepository;
+    private ProductMapper productMapper;
+    private TransactionTemplate readOnly;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("search");
+        BenchmarkContext.seedCatalog(context, products);
+        productService = context.getBean(ProductService.class);
+        productRepository = context.getBean(ProductRepository.class);
+        productMapper = context.getBean(ProductMapper.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductResponse> searchIndex() {
+        return productService.searchProducts(keyword);
+    }
+
+    @Benchmark
+    public List<ProductResponse> searchSql() {
+        return readOnly.execute(status -> {
+            List<Product> matches = productRepository.searchByKeyword(keyword);
+            return matches.stream().map(productMapper::toResponse).collect(Collectors.toList());
+        });
+    }
+}
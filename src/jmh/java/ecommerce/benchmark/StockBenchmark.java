@@ -0,0 +1,74 @@
+package ecommerce.benchmark;
+
+import ecommerce.entity.Product;
+import ecommerce.exception.InsufficientStockException;
+import ecommerce.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Concurrent one-unit stock reservations over a few SKUs: the guarded UPDATE behind ProductService.updateStock
+// against the read-modify-write it replaced (load the product, compare in Java, write it back), each in its
+// own transaction and without the change events and outbox row both service paths add. The old path is only
+// a baseline; under contention it loses updates and oversells. Raise the contention with -t.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class StockBenchmark {
+
+    @Param({"1", "16"})
+    private int skus;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private TransactionTemplate transactionTemplate;
+    private List<Long> productIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("stock");
+        productIds = BenchmarkContext.seedCatalog(context, skus).stream().map(Product::getId).toList();
+        productRepository = context.getBean(ProductRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void guardedUpdate() {
+        Long productId = nextProductId();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (productRepository.decrementStock(productId, 1) != 1) {
+                throw new InsufficientStockException("Insufficient stock for product id: " + productId);
+            }
+        });
+    }
+
+    @Benchmark
+    public void readModifyWrite() {
+        Long productId = nextProductId();
+        transactionTemplate.executeWithoutResult(status -> {
+            Product product = productRepository.findById(productId).orElseThrow();
+            if (product.getStockQuantity() < 1) {
+                throw new InsufficientStockException("Insufficient stock for product: " + product.getName());
+            }
+            product.setStockQuantity(product.getStockQuantity() - 1);
+            productRepository.save(product);
+        });
+    }
+
+    private Long nextProductId() {
+        return productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+    }
+}
\ No newline at end of file
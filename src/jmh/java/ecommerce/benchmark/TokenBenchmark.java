@@ -0,0 +1,51 @@
+package ecommerce.benchmark;
+
+import ecommerce.entity.User;
+import ecommerce.security.AuthenticatedUser;
+import ecommerce.security.JwtTokenProvider;
+import ecommerce.security.TokenVerifier;
+import ecommerce.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+// Per-request token validation: a full signature check and parse against a hit in the verified-token cache
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private JwtTokenProvider jwtTokenProvider;
+    private TokenVerifier tokenVerifier;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("token");
+        Long userId = BenchmarkContext.registerUser(context, "token-user");
+        User user = context.getBean(UserService.class).findUserEntityById(userId);
+        jwtTokenProvider = context.getBean(JwtTokenProvider.class);
+        tokenVerifier = context.getBean(TokenVerifier.class);
+        token = jwtTokenProvider.createToken(user);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AuthenticatedUser parseToken() {
+        return jwtTokenProvider.parseToken(token);
+    }
+
+    @Benchmark
+    public AuthenticatedUser verifyCached() {
+        return tokenVerifier.verify(token);
+    }
+}
@@ -2,13 +2,21 @@ package ecommerce;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.Map;
 
 @SpringBootApplication
-@EnableJpaAuditing
+@EnableScheduling
+@EnableAsync
 public class EcommerceApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(EcommerceApplication.class, args);
+        SpringApplication application = new SpringApplication(EcommerceApplication.class);
+        // Defaults only; anything set in application.properties or the environment wins
+        application.setDefaultProperties(Map.of(
+                "management.endpoints.web.exposure.include", "health,info,prometheus"));
+        application.run(args);
     }
 }
\ No newline at end of file
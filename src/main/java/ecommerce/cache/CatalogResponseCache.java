@@ -0,0 +1,91 @@
+package ecommerce.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+// Serialized catalog responses, stored once as JSON bytes and once gzipped. Keys start with the catalog
+// ETag, so a write makes every older entry unreachable and the size bound evicts them.
+@Component
+public class CatalogResponseCache {
+
+    @Value("${ecommerce.catalog.response-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ecommerce.catalog.response-cache.maximum-weight:64MB}")
+    private DataSize maximumWeight;
+
+    @Value("${ecommerce.catalog.response-cache.gzip-min-size:1KB}")
+    private DataSize gzipMinSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, SerializedResponse> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight.toBytes())
+                .weigher((String key, SerializedResponse response) -> response.weight() + key.length())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "catalog_responses");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public SerializedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public SerializedResponse put(String key, String contentType, byte[] body) {
+        byte[] gzipBody = body.length >= gzipMinSize.toBytes() ? gzip(body) : null;
+        SerializedResponse response = new SerializedResponse(contentType, body, gzipBody);
+        cache.put(key, response);
+        return response;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return buffer.toByteArray();
+    }
+
+    public static final class SerializedResponse {
+        private final String contentType;
+        private final byte[] body;
+        private final byte[] gzipBody;
+
+        private SerializedResponse(String contentType, byte[] body, byte[] gzipBody) {
+            this.contentType = contentType;
+            this.body = body;
+            this.gzipBody = gzipBody;
+        }
+
+        public String getContentType() { return contentType; }
+        public byte[] getBody() { return body; }
+        public byte[] getGzipBody() { return gzipBody; }
+
+        private int weight() {
+            return body.length + (gzipBody != null ? gzipBody.length : 0);
+        }
+    }
+}
\ No newline at end of file
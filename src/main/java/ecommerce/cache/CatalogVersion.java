@@ -0,0 +1,287 @@
+package ecommerce.cache;
+
+import ecommerce.entity.CatalogRevision;
+import ecommerce.event.CategoryChangedEvent;
+import ecommerce.event.ProductChangedEvent;
+import ecommerce.event.ProductChangedEvent.ChangeType;
+import ecommerce.repository.CatalogRevisionRepository;
+import ecommerce.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// The ETags of catalog responses, built from the shared counters in catalog_revisions. Category responses
+// depend on content only, product lists on content and stock, and a single product on content and its
+// own stock version, so a checkout leaves categories and every other product's tag alone. Counters are
+// cached for the refresh interval, so another node's write shows up here within that long.
+//
+// This node's writes move the shared counters from a background thread: the writer still holds its
+// connection when its transaction completes, and waiting there for a second one can exhaust the pool.
+// Until a change has reached the counters, tags of its scope carry a marker no other node or earlier
+// state can produce, so they stop matching the moment the write completes. A failed increment is retried
+// on a schedule until it lands, and a node moves both counters when it starts, in case it went down with
+// changes that never reached them.
+@Component
+public class CatalogVersion {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogVersion.class);
+
+    // Transaction resource key for the scopes a transaction has changed so far
+    private final Object pendingScopesKey = new Object();
+
+    // Random per process, so a pending marker never repeats across nodes or restarts
+    private final String nodeToken = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    private final Map<String, LocalChanges> localChanges = Map.of(
+            CatalogRevision.CONTENT, new LocalChanges(), CatalogRevision.STOCK, new LocalChanges());
+
+    private final ExecutorService incrementer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-version");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${ecommerce.catalog.version-refresh:PT1S}")
+    private Duration refreshInterval;
+
+    @Autowired
+    private CatalogRevisionRepository catalogRevisionRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private volatile Versions versions;
+
+    // Seeded from the clock, so tags handed out before the table was recreated do not match the new rows.
+    // Existing rows are moved once: a restart costs clients one full response, a lost change costs more.
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureRevisions() {
+        Set<String> existing = new HashSet<>();
+        for (String scope : List.of(CatalogRevision.CONTENT, CatalogRevision.STOCK)) {
+            if (catalogRevisionRepository.existsById(scope)) {
+                existing.add(scope);
+                continue;
+            }
+            try {
+                catalogRevisionRepository.saveAndFlush(new CatalogRevision(scope, System.currentTimeMillis()));
+            } catch (DataIntegrityViolationException ex) {
+                // Created concurrently by another node
+            }
+        }
+        if (!existing.isEmpty()) {
+            catalogRevisionRepository.increment(existing);
+        }
+        versions = null;
+    }
+
+    @Scheduled(fixedDelayString = "${ecommerce.catalog.publish-retry:PT5S}")
+    public void publishPending() {
+        if (pending(CatalogRevision.CONTENT, CatalogRevision.STOCK) == null) {
+            return;
+        }
+        try {
+            incrementer.execute(this::publish);
+        } catch (RejectedExecutionException ex) {
+            // Shutting down
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        incrementer.shutdown();
+    }
+
+    // The shared content counter as last read, without this node's unpublished changes
+    public long getContentVersion() {
+        return current().content;
+    }
+
+    public String getCategoryEtag() {
+        return toEtag(pending(CatalogRevision.CONTENT), current().content);
+    }
+
+    public String getProductListEtag() {
+        Versions current = current();
+        return toEtag(pending(CatalogRevision.CONTENT, CatalogRevision.STOCK), current.content, current.stock);
+    }
+
+    // Null when the product does not exist; the 404 is left untagged. The product's stock version moves in
+    // the same statement as its stock, so only content changes can be pending here.
+    public String getProductEtag(Long productId) {
+        Versions current = current();
+        String pending = pending(CatalogRevision.CONTENT);
+        return productRepository.findStockVersionById(productId)
+                .map(stockVersion -> toEtag(pending, current.content, stockVersion))
+                .orElse(null);
+    }
+
+    // Events arrive inside the writing transaction, often during its flush at commit. Only the scope is
+    // noted here; it counts as changed once per transaction after it completes, when every after-commit
+    // listener has already refreshed the caches and the search index. A rollback only costs clients one
+    // full response.
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        changed(event.getChangeType() == ChangeType.STOCK_UPDATED ? CatalogRevision.STOCK : CatalogRevision.CONTENT);
+    }
+
+    @EventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        changed(CatalogRevision.CONTENT);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void changed(String scope) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            completed(Set.of(scope));
+            return;
+        }
+
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(pendingScopesKey);
+        if (pending == null) {
+            Set<String> scopes = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(pendingScopesKey, scopes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(pendingScopesKey);
+                    completed(scopes);
+                }
+            });
+            pending = scopes;
+        }
+        pending.add(scope);
+    }
+
+    private void completed(Set<String> scopes) {
+        scopes.forEach(scope -> localChanges.get(scope).count.incrementAndGet());
+        incrementer.execute(this::publish);
+    }
+
+    // Moves each shared counter once for however many local changes queued up behind the last publish
+    private void publish() {
+        Map<String, Long> upTo = new HashMap<>();
+        localChanges.forEach((scope, changes) -> {
+            long count = changes.count.get();
+            if (count != changes.published) {
+                upTo.put(scope, count);
+            }
+        });
+        if (upTo.isEmpty()) {
+            return;
+        }
+
+        try {
+            catalogRevisionRepository.increment(upTo.keySet());
+            versions = read();
+            upTo.forEach((scope, count) -> localChanges.get(scope).published = count);
+        } catch (RuntimeException ex) {
+            // The scopes stay pending until the next change or publishPending moves them
+            log.warn("Could not move the catalog version for {}", upTo.keySet(), ex);
+        }
+    }
+
+    // The total only grows, so a marker is never handed out for two different states
+    private String pending(String... scopes) {
+        boolean unpublished = false;
+        long total = 0;
+        for (String scope : scopes) {
+            LocalChanges changes = localChanges.get(scope);
+            long count = changes.count.get();
+            unpublished |= count != changes.published;
+            total += count;
+        }
+        return unpublished ? nodeToken + "." + Long.toString(total, 36) : null;
+    }
+
+    private Versions current() {
+        Versions current = versions;
+        if (current != null && System.nanoTime() - current.readAt < refreshInterval.toNanos()) {
+            return current;
+        }
+        return refresh();
+    }
+
+    // One caller reads the counters; callers queued behind it take its result
+    private synchronized Versions refresh() {
+        Versions current = versions;
+        if (current != null && System.nanoTime() - current.readAt < refreshInterval.toNanos()) {
+            return current;
+        }
+        try {
+            versions = read();
+        } catch (RuntimeException ex) {
+            // Nothing can be written while the database is unreachable either
+            if (current == null) {
+                throw ex;
+            }
+            log.warn("Could not read the catalog version, keeping the last one", ex);
+            versions = new Versions(current.content, current.stock, System.nanoTime());
+        }
+        return versions;
+    }
+
+    private Versions read() {
+        long content = 0;
+        long stock = 0;
+        for (CatalogRevision revision : catalogRevisionRepository.findAll()) {
+            if (CatalogRevision.CONTENT.equals(revision.getScope())) {
+                content = revision.getVersion();
+            } else if (CatalogRevision.STOCK.equals(revision.getScope())) {
+                stock = revision.getVersion();
+            }
+        }
+        return new Versions(content, stock, System.nanoTime());
+    }
+
+    private static String toEtag(String pending, long... versions) {
+        StringBuilder tag = new StringBuilder("\"");
+        for (int i = 0; i < versions.length; i++) {
+            if (i > 0) {
+                tag.append('.');
+            }
+            tag.append(Long.toString(versions[i], 36));
+        }
+        if (pending != null) {
+            tag.append('-').append(pending);
+        }
+        return tag.append('"').toString();
+    }
+
+    private static class LocalChanges {
+        private final AtomicLong count = new AtomicLong();
+        private volatile long published;
+    }
+
+    private static class Versions {
+        private final long content;
+        private final long stock;
+        private final long readAt;
+
+        private Versions(long content, long stock, long readAt) {
+            this.content = content;
+            this.stock = stock;
+            this.readAt = readAt;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package ecommerce.cache;
+
+import ecommerce.dto.CategoryResponse;
+import ecommerce.entity.Category;
+import ecommerce.event.CategoryChangedEvent;
+import ecommerce.repository.CategoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// All categories as one snapshot. This node's changes rebuild it when they commit; another node's show up
+// as a move of the shared content version, which is checked on every read and cached by CatalogVersion.
+@Component
+public class CategoryCache {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    private volatile Snapshot snapshot;
+
+    public List<CategoryResponse> getAll() {
+        return getSnapshot().all;
+    }
+
+    public CategoryResponse getById(Long id) {
+        return getSnapshot().byId.get(id);
+    }
+
+    // Case-insensitive like the unique index on categories.name under MySQL's default collation
+    public CategoryResponse getByName(String name) {
+        return getSnapshot().byName.get(nameKey(name));
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null || current.contentVersion != catalogVersion.getContentVersion()) {
+            current = rebuildIfStale();
+        }
+        return current;
+    }
+
+    // Readers that found the same stale snapshot wait here, and only the first one reads the categories
+    private synchronized Snapshot rebuildIfStale() {
+        Snapshot current = snapshot;
+        if (current != null && current.contentVersion == catalogVersion.getContentVersion()) {
+            return current;
+        }
+        return rebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        rebuild();
+    }
+
+    // Serialized so an older read can never replace a newer snapshot
+    // The version is read first, so a change landing during the read is picked up by the next one
+    public synchronized Snapshot rebuild() {
+        long contentVersion = catalogVersion.getContentVersion();
+        List<CategoryResponse> categories = categoryRepository.findAll().stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+        snapshot = new Snapshot(categories, contentVersion);
+        return snapshot;
+    }
+
+    // Immutable and shared by every caller, so no reader can change what the next one sees
+    private CategoryResponse toResponse(Category category) {
+        return new CategoryResponse(category.getId(), category.getName(), category.getDescription());
+    }
+
+    private static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Snapshot {
+        private final List<CategoryResponse> all;
+        private final Map<Long, CategoryResponse> byId;
+        private final Map<String, CategoryResponse> byName;
+        private final long contentVersion;
+
+        private Snapshot(List<CategoryResponse> categories, long contentVersion) {
+            Map<Long, CategoryResponse> ids = new HashMap<>();
+            Map<String, CategoryResponse> names = new HashMap<>();
+            for (CategoryResponse category : categories) {
+                ids.put(category.getId(), category);
+                names.putIfAbsent(nameKey(category.getName()), category);
+            }
+            this.all = Collections.unmodifiableList(categories);
+            this.byId = Collections.unmodifiableMap(ids);
+            this.byName = Collections.unmodifiableMap(names);
+            this.contentVersion = contentVersion;
+        }
+    }
+}
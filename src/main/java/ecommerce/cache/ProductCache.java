@@ -0,0 +1,80 @@
+package ecommerce.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import ecommerce.dto.ProductResponse;
+import ecommerce.event.CategoryChangedEvent;
+import ecommerce.event.ProductChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+@Component
+public class ProductCache {
+
+    @Value("${ecommerce.cache.product.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${ecommerce.cache.product.expire-after-write:PT5M}")
+    private Duration expireAfterWrite;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<Long, ProductResponse> cache;
+
+    // Caffeine evicts with W-TinyLFU, which keeps the hot SKUs resident under a size bound
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    public ProductResponse get(Long productId, Function<Long, ProductResponse> loader) {
+        return cache.get(productId, loader);
+    }
+
+    public Map<Long, ProductResponse> getAll(Collection<Long> productIds,
+                                             Function<Set<? extends Long>, Map<Long, ProductResponse>> loader) {
+        return cache.getAll(productIds, loader);
+    }
+
+    public void invalidate(Long productId) {
+        cache.invalidate(productId);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    // Runs after commit so a concurrent reader cannot re-cache the pre-commit row
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.getProductId());
+    }
+
+    // Cached responses embed the category name
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        invalidateAll();
+    }
+}
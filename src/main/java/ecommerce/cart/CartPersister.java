@@ -0,0 +1,130 @@
+package ecommerce.cart;
+
+import ecommerce.entity.Cart;
+import ecommerce.entity.CartItem;
+import ecommerce.entity.User;
+import ecommerce.repository.CartRepository;
+import ecommerce.repository.ProductRepository;
+import ecommerce.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Moves carts between CartState and the carts/cart_items tables. Every write locks the cart row first,
+// so a write waits for a checkout holding the cart (see lock) instead of interleaving with it.
+@Component
+@Transactional
+public class CartPersister {
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserService userService;
+
+    public CartState load(Long userId) {
+        Cart cart = cartRepository.findByUserId(userId)
+                .orElseGet(() -> createCart(userId));
+        return toState(cart);
+    }
+
+    // Loads the cart once, applies the mutation to both the state and the loaded entities, and lets
+    // dirty checking write the difference at commit
+    public CartState update(Long userId, Consumer<CartState> mutation) {
+        cartRepository.lockByUserId(userId);
+        Cart cart = cartRepository.findByUserId(userId)
+                .orElseGet(() -> createCart(userId));
+        CartState state = toState(cart);
+        mutation.accept(state);
+        if (state.isDirty()) {
+            apply(state, cart);
+        }
+        return state;
+    }
+
+    public void write(CartState state) {
+        cartRepository.lockByUserId(state.getUserId());
+        Cart cart = cartRepository.findByUserId(state.getUserId())
+                .orElseGet(() -> createCart(state.getUserId()));
+        apply(state, cart);
+    }
+
+    // Loads every cart of the batch with one query; the changes are flushed together at commit
+    public void writeAll(Collection<CartState> states) {
+        Map<Long, Cart> cartsByUserId = cartRepository
+                .findByUserIdIn(states.stream().map(CartState::getUserId).collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(cart -> cart.getUser().getId(), Function.identity()));
+
+        for (CartState state : states) {
+            Cart cart = cartsByUserId.get(state.getUserId());
+            if (cart != null) {
+                apply(state, cart);
+            }
+        }
+    }
+
+    // Holds the cart row until the caller's transaction ends
+    public void lock(Long userId) {
+        cartRepository.lockByUserId(userId);
+    }
+
+    public void clear(Long userId) {
+        cartRepository.lockByUserId(userId);
+        cartRepository.findByUserId(userId).ifPresent(cart -> {
+            cart.getCartItems().clear();
+            cart.setTotalAmount(BigDecimal.ZERO);
+        });
+    }
+
+    private void apply(CartState state, Cart cart) {
+        Map<Long, CartItem> remaining = new HashMap<>();
+        for (CartItem cartItem : cart.getCartItems()) {
+            remaining.put(cartItem.getProduct().getId(), cartItem);
+        }
+
+        for (CartLine line : state.getLines()) {
+            CartItem cartItem = remaining.remove(line.getProductId());
+            if (cartItem == null) {
+                cartItem = new CartItem();
+                cartItem.setCart(cart);
+                cartItem.setProduct(productRepository.getReferenceById(line.getProductId()));
+                cart.getCartItems().add(cartItem);
+            }
+            cartItem.setQuantity(line.getQuantity());
+            cartItem.setUnitPrice(line.getUnitPrice());
+            cartItem.setTotalPrice(line.getTotalPrice());
+        }
+
+        cart.getCartItems().removeAll(remaining.values());
+        cart.setTotalAmount(state.getTotalAmount());
+    }
+
+    private CartState toState(Cart cart) {
+        CartState state = new CartState(cart.getUser().getId(), cart.getId());
+        for (CartItem cartItem : cart.getCartItems()) {
+            state.putLine(new CartLine(cartItem.getProduct().getId(), cartItem.getId(), cartItem.getQuantity(),
+                    cartItem.getUnitPrice(), cartItem.getTotalPrice()));
+        }
+        state.markFlushed(state.getVersion());
+        return state;
+    }
+
+    private Cart createCart(Long userId) {
+        User user = userService.findUserEntityById(userId);
+        Cart cart = new Cart();
+        cart.setUser(user);
+        cart.setTotalAmount(BigDecimal.ZERO);
+        return cartRepository.save(cart);
+    }
+}
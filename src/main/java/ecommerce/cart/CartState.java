@@ -0,0 +1,138 @@
+package ecommerce.cart;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// A user's cart as held by a CartStore. Every change bumps the version; the cart is dirty
+// until a write of that version has been committed to the database. Each line remembers the
+// version that last changed it, so a clear can leave later changes in place.
+public class CartState {
+    private final Long userId;
+    private final Long cartId;
+    private final Map<Long, CartLine> lines = new LinkedHashMap<>();
+    private final Map<Long, Long> lineVersions = new HashMap<>();
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+    private long version;
+    private long flushedVersion;
+    private volatile long lastAccessed = System.currentTimeMillis();
+    private boolean evicted;
+
+    // Held while a database write of this cart is in flight, up to the commit of its transaction
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+
+    public CartState(Long userId, Long cartId) {
+        this.userId = userId;
+        this.cartId = cartId;
+    }
+
+
+    public Long getUserId() { return userId; }
+    public Long getCartId() { return cartId; }
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public long getVersion() { return version; }
+    public long getLastAccessed() { return lastAccessed; }
+    public ReentrantLock getWriteLock() { return writeLock; }
+
+    public List<CartLine> getLines() {
+        return new ArrayList<>(lines.values());
+    }
+
+    public CartLine getLine(Long productId) {
+        return lines.get(productId);
+    }
+
+    public void putLine(CartLine line) {
+        CartLine previous = lines.put(line.getProductId(), line);
+        BigDecimal previousTotal = previous != null ? previous.getTotalPrice() : BigDecimal.ZERO;
+        totalAmount = totalAmount.add(line.getTotalPrice()).subtract(previousTotal);
+        version++;
+        lineVersions.put(line.getProductId(), version);
+    }
+
+    public void removeLine(Long productId) {
+        CartLine removed = lines.remove(productId);
+        if (removed != null) {
+            lineVersions.remove(productId);
+            totalAmount = totalAmount.subtract(removed.getTotalPrice());
+            version++;
+        }
+    }
+
+    public void clear() {
+        lines.clear();
+        lineVersions.clear();
+        totalAmount = BigDecimal.ZERO;
+        version++;
+    }
+
+    // Drops the lines last changed at or before the given version. Lines changed since are kept,
+    // without their item ids: the rows behind those ids were cleared along with the rest.
+    public void clearUpTo(long clearedVersion) {
+        for (Iterator<CartLine> iterator = lines.values().iterator(); iterator.hasNext(); ) {
+            CartLine line = iterator.next();
+            if (lineVersions.get(line.getProductId()) <= clearedVersion) {
+                iterator.remove();
+                lineVersions.remove(line.getProductId());
+                totalAmount = totalAmount.subtract(line.getTotalPrice());
+            } else {
+                line.setItemId(null);
+            }
+        }
+        version++;
+    }
+
+    public boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    public void recalculateTotal() {
+        BigDecimal total = lines.values().stream()
+                .map(CartLine::getTotalPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (total.compareTo(totalAmount) != 0) {
+            totalAmount = total;
+            version++;
+        }
+    }
+
+    public boolean isDirty() {
+        return version > flushedVersion;
+    }
+
+    public void markFlushed(long flushedVersion) {
+        this.flushedVersion = Math.max(this.flushedVersion, flushedVersion);
+    }
+
+    public void touch() {
+        lastAccessed = System.currentTimeMillis();
+    }
+
+    public boolean isEvicted() {
+        return evicted;
+    }
+
+    public void markEvicted() {
+        evicted = true;
+    }
+
+    public CartState copy() {
+        CartState copy = new CartState(userId, cartId);
+        for (CartLine line : lines.values()) {
+            copy.lines.put(line.getProductId(), new CartLine(line.getProductId(), line.getItemId(),
+                    line.getQuantity(), line.getUnitPrice(), line.getTotalPrice()));
+        }
+        copy.lineVersions.putAll(lineVersions);
+        copy.totalAmount = totalAmount;
+        copy.version = version;
+        copy.flushedVersion = flushedVersion;
+        copy.lastAccessed = lastAccessed;
+        return copy;
+    }
+}
@@ -0,0 +1,14 @@
+package ecommerce.cart;
+
+import java.util.function.Consumer;
+
+// Holds the working copy of each user's cart. Reads and updates return detached snapshots.
+// flush returns the cart version now in the database, and clearCart with that version removes
+// only what was flushed, so lines added while a checkout runs survive it.
+public interface CartStore {
+    CartState getCart(Long userId);
+    CartState updateCart(Long userId, Consumer<CartState> mutation);
+    void clearCart(Long userId);
+    void clearCart(Long userId, long flushedVersion);
+    long flush(Long userId);
+}
@@ -0,0 +1,301 @@
+package ecommerce.cart;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Keeps active carts in memory and writes them behind: any number of changes to a cart between two
+// flushes cost a single database write. Dirty carts are flushed in batches on an interval, and a
+// user's cart is written through at checkout and whenever it is cleared.
+//
+// Single node only, or sticky sessions by user: flushes overwrite the database cart with this node's
+// copy, so a cart changed on two nodes keeps whichever flushed last.
+@Component
+@ConditionalOnProperty(name = "ecommerce.cart.store", havingValue = "memory")
+public class InMemoryCartStore implements CartStore {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryCartStore.class);
+
+    @Value("${ecommerce.cart.shards:16}")
+    private int shardCount;
+
+    @Value("${ecommerce.cart.flush-batch-size:100}")
+    private int flushBatchSize;
+
+    @Value("${ecommerce.cart.idle-timeout:PT30M}")
+    private Duration idleTimeout;
+
+    @Autowired
+    private CartPersister cartPersister;
+
+    private Shard[] shards;
+
+    @PostConstruct
+    public void init() {
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    @Override
+    public CartState getCart(Long userId) {
+        return withCart(userId, cart -> { });
+    }
+
+    @Override
+    public CartState updateCart(Long userId, Consumer<CartState> mutation) {
+        return withCart(userId, mutation);
+    }
+
+    @Override
+    public void clearCart(Long userId) {
+        CartState cart = shardFor(userId).carts.get(userId);
+        if (cart == null) {
+            cartPersister.clear(userId);
+            return;
+        }
+        long version;
+        synchronized (cart) {
+            version = cart.getVersion();
+        }
+        clearCart(userId, version);
+    }
+
+    // Lines changed after the flushed version stay in memory and are written again by the next flush
+    @Override
+    public void clearCart(Long userId, long flushedVersion) {
+        Shard shard = shardFor(userId);
+        CartState cart = shard.carts.get(userId);
+        if (cart == null) {
+            cartPersister.clear(userId);
+            return;
+        }
+
+        writeThrough(cart, () -> {
+            cartPersister.clear(userId);
+            afterCommit(() -> {
+                synchronized (cart) {
+                    cart.clearUpTo(flushedVersion);
+                    if (cart.isEmpty()) {
+                        cart.markFlushed(cart.getVersion());
+                    } else {
+                        shard.dirty.add(userId);
+                    }
+                }
+            });
+            return null;
+        });
+    }
+
+    // Loads the cart if this node does not hold it yet, so a checkout always has a version to clear up to
+    @Override
+    public long flush(Long userId) {
+        CartState cart = cartFor(shardFor(userId), userId);
+
+        return writeThrough(cart, () -> {
+            CartState snapshot;
+            synchronized (cart) {
+                if (!cart.isDirty()) {
+                    return cart.getVersion();
+                }
+                snapshot = cart.copy();
+            }
+            cartPersister.write(snapshot);
+            afterCommit(() -> markFlushed(cart, snapshot.getVersion()));
+            return snapshot.getVersion();
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${ecommerce.cart.flush-interval:PT5S}")
+    public void flushDirtyCarts() {
+        for (Shard shard : shards) {
+            Map<CartState, CartState> batch = new LinkedHashMap<>();
+            for (Iterator<Long> iterator = shard.dirty.iterator(); iterator.hasNext(); ) {
+                Long userId = iterator.next();
+                iterator.remove();
+
+                CartState cart = shard.carts.get(userId);
+                if (cart == null) {
+                    continue;
+                }
+                // A checkout holding the lock writes the cart itself
+                if (!cart.getWriteLock().tryLock()) {
+                    shard.dirty.add(userId);
+                    continue;
+                }
+                synchronized (cart) {
+                    if (!cart.isDirty()) {
+                        cart.getWriteLock().unlock();
+                        continue;
+                    }
+                    batch.put(cart, cart.copy());
+                }
+
+                if (batch.size() >= flushBatchSize) {
+                    writeBatch(shard, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(shard, batch);
+            }
+        }
+        evictIdleCarts();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushDirtyCarts();
+    }
+
+    private CartState withCart(Long userId, Consumer<CartState> action) {
+        Shard shard = shardFor(userId);
+        while (true) {
+            CartState cart = cartFor(shard, userId);
+            synchronized (cart) {
+                // Evicted between lookup and lock; load it again
+                if (cart.isEvicted()) {
+                    continue;
+                }
+                action.accept(cart);
+                cart.touch();
+                if (cart.isDirty()) {
+                    shard.dirty.add(userId);
+                }
+                return cart.copy();
+            }
+        }
+    }
+
+    // Loads outside the map, so a database read never runs under a ConcurrentHashMap bin lock and never
+    // holds up other users' carts; when two requests race to load, the first one in wins
+    private CartState cartFor(Shard shard, Long userId) {
+        CartState cart = shard.carts.get(userId);
+        if (cart != null) {
+            return cart;
+        }
+        CartState loaded;
+        try {
+            loaded = cartPersister.load(userId);
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent first request created the cart row; read that one
+            loaded = cartPersister.load(userId);
+        }
+        CartState existing = shard.carts.putIfAbsent(userId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    // Expects the write locks of all carts in the batch to be held; releases them
+    private void writeBatch(Shard shard, Map<CartState, CartState> batch) {
+        try {
+            cartPersister.writeAll(batch.values());
+            batch.forEach((cart, snapshot) -> markFlushed(cart, snapshot.getVersion()));
+        } catch (RuntimeException ex) {
+            log.warn("Flushing a batch of {} carts failed, retrying them one by one", batch.size(), ex);
+            batch.forEach((cart, snapshot) -> {
+                try {
+                    cartPersister.write(snapshot);
+                    markFlushed(cart, snapshot.getVersion());
+                } catch (RuntimeException cartEx) {
+                    log.warn("Dropping unsaved changes to the cart of user {}", cart.getUserId(), cartEx);
+                    evict(shard, cart);
+                }
+            });
+        } finally {
+            batch.keySet().forEach(cart -> cart.getWriteLock().unlock());
+        }
+    }
+
+    private void evictIdleCarts() {
+        long cutoff = System.currentTimeMillis() - idleTimeout.toMillis();
+        for (Shard shard : shards) {
+            for (CartState cart : shard.carts.values()) {
+                if (cart.getLastAccessed() >= cutoff || cart.getWriteLock().isLocked()) {
+                    continue;
+                }
+                synchronized (cart) {
+                    if (!cart.isDirty() && cart.getLastAccessed() < cutoff) {
+                        evict(shard, cart);
+                    }
+                }
+            }
+        }
+    }
+
+    private void evict(Shard shard, CartState cart) {
+        synchronized (cart) {
+            cart.markEvicted();
+            shard.carts.remove(cart.getUserId(), cart);
+        }
+    }
+
+    private void markFlushed(CartState cart, long version) {
+        synchronized (cart) {
+            cart.markFlushed(version);
+        }
+    }
+
+    // Keeps background flushes off the cart until the surrounding transaction has finished, so an
+    // older snapshot cannot land on top of what this transaction writes
+    private <T> T writeThrough(CartState cart, Supplier<T> write) {
+        ReentrantLock lock = cart.getWriteLock();
+        lock.lock();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                return write.get();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+        return write.get();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Shard shardFor(Long userId) {
+        return shards[Math.floorMod(Long.hashCode(userId), shards.length)];
+    }
+
+    private static class Shard {
+        private final Map<Long, CartState> carts = new ConcurrentHashMap<>();
+        private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    }
+}
@@ -0,0 +1,49 @@
+package ecommerce.cart;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Consumer;
+
+// Writes every cart change straight through to the database. Safe with any number of nodes: there is no
+// copy of the cart outside the database.
+@Component
+@ConditionalOnProperty(name = "ecommerce.cart.store", havingValue = "jpa", matchIfMissing = true)
+@Transactional
+public class JpaCartStore implements CartStore {
+
+    @Autowired
+    private CartPersister cartPersister;
+
+    @Override
+    public CartState getCart(Long userId) {
+        return cartPersister.load(userId);
+    }
+
+    @Override
+    public CartState updateCart(Long userId, Consumer<CartState> mutation) {
+        return cartPersister.update(userId, mutation);
+    }
+
+    @Override
+    public void clearCart(Long userId) {
+        cartPersister.clear(userId);
+    }
+
+    // flush locked the cart for the rest of the checkout, so no line can have been added since it was
+    // read and everything in it was ordered
+    @Override
+    public void clearCart(Long userId, long flushedVersion) {
+        cartPersister.clear(userId);
+    }
+
+    // Nothing is buffered; the cart row is locked instead, so changes made while a checkout runs wait for
+    // it and land in the emptied cart
+    @Override
+    public long flush(Long userId) {
+        cartPersister.lock(userId);
+        return 0;
+    }
+}
@@ -1,5 +1,10 @@
 package ecommerce.config;
 
+import ecommerce.entity.PooledSequenceGenerator;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
@@ -8,4 +13,18 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 @EnableJpaRepositories(basePackages = "ecommerce.repository")
 @EnableJpaAuditing
 public class JpaConfig {
+
+    // Groups inserts and updates per table into JDBC batches, with ids fetched in blocks so the inserts
+    // can be batched at all; explicit spring.jpa.properties win
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer(@Value("${ecommerce.jpa.batch-size:50}") int batchSize,
+            @Value("${ecommerce.jpa.id-allocation-size:50}") int idAllocationSize) {
+        return properties -> {
+            properties.putIfAbsent(PooledSequenceGenerator.ALLOCATION_SIZE, idAllocationSize);
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+            properties.putIfAbsent(AvailableSettings.BATCH_VERSIONED_DATA, true);
+        };
+    }
 }
\ No newline at end of file
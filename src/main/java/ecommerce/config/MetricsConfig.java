@@ -0,0 +1,57 @@
+package ecommerce.config;
+
+import ecommerce.metrics.RequestSqlStatisticsFilter;
+import ecommerce.metrics.ServiceMetricsPostProcessor;
+import ecommerce.metrics.StatementStatisticsDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Percentile histograms let Prometheus aggregate latency quantiles across instances
+    @Bean
+    public static ServiceMetricsPostProcessor serviceMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                          Environment environment) {
+        boolean histogram = environment.getProperty("ecommerce.metrics.service.histogram", Boolean.class, true);
+        return new ServiceMetricsPostProcessor(meterRegistry, histogram);
+    }
+
+    // Wraps the pool so every statement is counted against the thread that ran it
+    @Bean
+    public static BeanPostProcessor statementStatisticsDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof StatementStatisticsDataSource) {
+                    return bean;
+                }
+                Duration slowThreshold = environment.getProperty("ecommerce.sql.slow-threshold", Duration.class,
+                        Duration.ofMillis(500));
+                return new StatementStatisticsDataSource(dataSource, slowThreshold);
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestSqlStatisticsFilter> requestSqlStatisticsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${ecommerce.sql.server-timing-header:false}") boolean serverTimingHeader,
+            @Value("${ecommerce.sql.log-requests:false}") boolean logRequests) {
+        FilterRegistrationBean<RequestSqlStatisticsFilter> registration = new FilterRegistrationBean<>(
+                new RequestSqlStatisticsFilter(meterRegistry, serverTimingHeader, logRequests));
+        // Ahead of Spring Security so statements run while authenticating are counted too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package ecommerce.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+// With spring.threads.virtual.enabled=true (Java 21+), Spring Boot runs Tomcat requests and the
+// applicationTaskExecutor behind @Async and async MVC responses on virtual threads. Request
+// concurrency is then no longer capped by a thread pool, so the JDBC pool gets a limiter in front.
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || wraps(dataSource, ConcurrencyLimitingDataSource.class)) {
+                    return bean;
+                }
+
+                int poolSize = poolSize(dataSource);
+                int maxConcurrency = environment.getProperty("ecommerce.datasource.max-concurrency", Integer.class, poolSize);
+                Duration acquireTimeout = environment.getProperty("ecommerce.datasource.acquire-timeout", Duration.class,
+                        Duration.ofSeconds(30));
+                return new ConcurrencyLimitingDataSource(dataSource, maxConcurrency, acquireTimeout);
+            }
+        };
+    }
+
+    // Other post-processors (statement statistics) may already have wrapped the pool, so look through them.
+    // Hikari reports -1 until the pool starts and applies its default of 10.
+    private static int poolSize(DataSource dataSource) {
+        if (!wraps(dataSource, HikariDataSource.class)) {
+            return DEFAULT_POOL_SIZE;
+        }
+        try {
+            int maximumPoolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            return maximumPoolSize > 0 ? maximumPoolSize : DEFAULT_POOL_SIZE;
+        } catch (SQLException ex) {
+            return DEFAULT_POOL_SIZE;
+        }
+    }
+
+    private static boolean wraps(DataSource dataSource, Class<?> type) {
+        try {
+            return type.isInstance(dataSource) || dataSource.isWrapperFor(type);
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+}
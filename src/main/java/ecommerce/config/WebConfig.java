@@ -1,12 +1,36 @@
 package ecommerce.config;
 
+import ecommerce.controller.CatalogResponseAdvice;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.time.Duration;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    // Streaming responses such as the order export outlive the servlet container's 30 second async default
+    @Value("${ecommerce.web.async-timeout:PT30M}")
+    private Duration asyncTimeout;
+
+    @Autowired
+    private CatalogResponseAdvice catalogResponseAdvice;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncTimeout.toMillis());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(catalogResponseAdvice).addPathPatterns("/api/products/**", "/api/categories/**");
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
@@ -0,0 +1,53 @@
+package ecommerce.controller;
+
+import ecommerce.dto.CategorySalesResponse;
+import ecommerce.dto.DailySalesResponse;
+import ecommerce.dto.ProductSalesResponse;
+import ecommerce.service.SalesAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @GetMapping("/sales/daily")
+    public ResponseEntity<List<DailySalesResponse>> getDailySales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<DailySalesResponse> sales = salesAnalyticsService.getDailySales(from, to);
+        return ResponseEntity.ok(sales);
+    }
+
+    @GetMapping("/sales/top-products")
+    public ResponseEntity<List<ProductSalesResponse>> getTopProducts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit) {
+        List<ProductSalesResponse> products = salesAnalyticsService.getTopProducts(from, to, limit);
+        return ResponseEntity.ok(products);
+    }
+
+    @GetMapping("/sales/categories")
+    public ResponseEntity<List<CategorySalesResponse>> getCategorySales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<CategorySalesResponse> categories = salesAnalyticsService.getCategorySales(from, to);
+        return ResponseEntity.ok(categories);
+    }
+
+    @PostMapping("/sales/rebuild")
+    public ResponseEntity<String> rebuildSales() {
+        salesAnalyticsService.rebuild();
+        return ResponseEntity.ok("Sales rollups rebuilt successfully");
+    }
+}
@@ -0,0 +1,210 @@
+package ecommerce.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ecommerce.cache.CatalogResponseCache;
+import ecommerce.cache.CatalogResponseCache.SerializedResponse;
+import ecommerce.cache.CatalogVersion;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Public catalog reads are tagged with the catalog version their path depends on. A matching If-None-Match is answered with
+// 304 before the controller runs, and a body already serialized for this version, path and query is
+// written straight from the response cache. The version is read before the handler, so a write that
+// commits mid-request can only make the tag older than the body, never newer.
+@ControllerAdvice(assignableTypes = {ProductController.class, CategoryController.class})
+public class CatalogResponseAdvice implements HandlerInterceptor, ResponseBodyAdvice<Object> {
+
+    private static final String ETAG_ATTRIBUTE = CatalogResponseAdvice.class.getName() + ".etag";
+    private static final String CACHE_KEY_ATTRIBUTE = CatalogResponseAdvice.class.getName() + ".cacheKey";
+    private static final Pattern PRODUCT_PATH = Pattern.compile("/api/products/(\\d{1,18})(/availability)?");
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private CatalogResponseCache responseCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${ecommerce.catalog.http-cache.max-age:PT0S}")
+    private Duration maxAge;
+
+    private String cacheControl;
+
+    @PostConstruct
+    public void init() {
+        CacheControl control = maxAge.isZero() ? CacheControl.noCache() : CacheControl.maxAge(maxAge);
+        cacheControl = control.cachePublic().getHeaderValue();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+
+        String etag = etagFor(request);
+        if (etag == null) {
+            return true;
+        }
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.equals("*") || ifNoneMatch.contains(etag))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            return false;
+        }
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+
+        if (responseCache.isEnabled()) {
+            String query = request.getQueryString();
+            String key = query == null ? etag + request.getRequestURI() : etag + request.getRequestURI() + '?' + query;
+            SerializedResponse cached = responseCache.get(key);
+            if (cached != null) {
+                ServerHttpResponse serverResponse = new ServletServerHttpResponse(response);
+                serverResponse.getHeaders().setETag(etag);
+                serverResponse.getHeaders().setCacheControl(cacheControl);
+                serverResponse.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                write(request, serverResponse, cached);
+                serverResponse.flush();
+                return false;
+            }
+            request.setAttribute(CACHE_KEY_ATTRIBUTE, key);
+        }
+        return true;
+    }
+
+    private String etagFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/categories")) {
+            return catalogVersion.getCategoryEtag();
+        }
+        Matcher product = PRODUCT_PATH.matcher(path);
+        if (product.matches()) {
+            return catalogVersion.getProductEtag(Long.valueOf(product.group(1)));
+        }
+        return catalogVersion.getProductListEtag();
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    // Only successful bodies are tagged; errors from the exception handlers stay uncacheable. Vary goes on
+    // every response: with the cache on, the same URL is served gzipped or not depending on the request.
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!(request instanceof ServletServerHttpRequest servletRequest)
+                || !(response instanceof ServletServerHttpResponse servletResponse)) {
+            return body;
+        }
+
+        HttpServletRequest httpRequest = servletRequest.getServletRequest();
+        Object etag = httpRequest.getAttribute(ETAG_ATTRIBUTE);
+        int status = servletResponse.getServletResponse().getStatus();
+        if (etag == null || status < 200 || status >= 300) {
+            return body;
+        }
+        response.getHeaders().setETag((String) etag);
+        response.getHeaders().setCacheControl(cacheControl);
+
+        Object key = httpRequest.getAttribute(CACHE_KEY_ATTRIBUTE);
+        if (key == null || body == null || status != HttpServletResponse.SC_OK
+                || !MappingJackson2HttpMessageConverter.class.isAssignableFrom(selectedConverterType)) {
+            return body;
+        }
+
+        // Serialize once for the cache and write those bytes; a null body tells the converter there is nothing left
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            write(httpRequest, response, responseCache.put((String) key, selectedContentType.toString(), json));
+        } catch (JsonProcessingException ex) {
+            throw new HttpMessageNotWritableException("Could not write JSON: " + ex.getOriginalMessage(), ex);
+        } catch (IOException ex) {
+            throw new HttpMessageNotWritableException("Could not write catalog response", ex);
+        }
+        return null;
+    }
+
+    private void write(HttpServletRequest request, ServerHttpResponse response, SerializedResponse serialized)
+            throws IOException {
+        boolean gzip = serialized.getGzipBody() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        byte[] bytes = gzip ? serialized.getGzipBody() : serialized.getBody();
+
+        HttpHeaders headers = response.getHeaders();
+        headers.set(HttpHeaders.CONTENT_TYPE, serialized.getContentType());
+        headers.setContentLength(bytes.length);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.getBody().write(bytes);
+    }
+
+    // RFC 9110: an explicit gzip (or x-gzip) entry wins over "*", and q=0 means "not acceptable". A q-value
+    // that does not parse counts as 0, so a malformed header gets the identity body.
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 1 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+                        && parameter.charAt(1) == '=') {
+                    quality = parseQuality(parameter.substring(2).trim());
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = Math.max(gzip, quality);
+            } else if (coding.equals("*")) {
+                any = Math.max(any, quality);
+            }
+        }
+        return gzip >= 0 ? gzip > 0 : any > 0;
+    }
+
+    private static double parseQuality(String value) {
+        try {
+            double quality = Double.parseDouble(value);
+            return quality >= 0 && quality <= 1 ? quality : 0;
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+}
\ No newline at end of file
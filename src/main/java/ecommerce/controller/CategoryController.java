@@ -1,5 +1,6 @@
 package ecommerce.controller;
 
+import ecommerce.dto.CategoryResponse;
 import ecommerce.entity.Category;
 import ecommerce.service.CategoryService;
 import jakarta.validation.Valid;
@@ -19,20 +20,20 @@ public class CategoryController {
     private CategoryService categoryService;
 
     @GetMapping
-    public ResponseEntity<List<Category>> getAllCategories() {
-        List<Category> categories = categoryService.getAllCategories();
+    public ResponseEntity<List<CategoryResponse>> getAllCategories() {
+        List<CategoryResponse> categories = categoryService.getAllCategories();
         return ResponseEntity.ok(categories);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Category> getCategoryById(@PathVariable Long id) {
-        Category category = categoryService.getCategoryById(id);
+    public ResponseEntity<CategoryResponse> getCategoryById(@PathVariable Long id) {
+        CategoryResponse category = categoryService.getCategoryById(id);
         return ResponseEntity.ok(category);
     }
 
     @GetMapping("/name/{name}")
-    public ResponseEntity<Category> getCategoryByName(@PathVariable String name) {
-        Category category = categoryService.getCategoryByName(name);
+    public ResponseEntity<CategoryResponse> getCategoryByName(@PathVariable String name) {
+        CategoryResponse category = categoryService.getCategoryByName(name);
         return ResponseEntity.ok(category);
     }
 
@@ -1,16 +1,25 @@
 package ecommerce.controller;
 
+import ecommerce.dto.CursorPageResponse;
 import ecommerce.dto.OrderCreateRequest;
 import ecommerce.dto.OrderResponse;
 import ecommerce.entity.OrderStatus;
+import ecommerce.idempotency.IdempotentRequests;
 import ecommerce.service.OrderService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -20,12 +29,28 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+
     @PostMapping("/user/{userId}")
     public ResponseEntity<OrderResponse> createOrder(
             @PathVariable Long userId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody OrderCreateRequest request) {
-        OrderResponse order = orderService.createOrder(userId, request);
-        return new ResponseEntity<>(order, HttpStatus.CREATED);
+        // The order is accepted as PENDING and confirmed asynchronously; clients poll the Location
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            OrderResponse order = orderService.createOrder(userId, request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/orders/" + order.getId()))
+                    .body(order);
+        }
+
+        IdempotentRequests.Result<OrderResponse> result = idempotentRequests.execute(
+                "orders:" + userId, idempotencyKey, request, () -> orderService.createOrder(userId, request));
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/orders/" + result.getValue().getId()))
+                .header("Idempotent-Replayed", String.valueOf(result.isReplayed()))
+                .body(result.getValue());
     }
 
     @GetMapping("/{orderId}")
@@ -35,20 +60,41 @@ public class OrderController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<OrderResponse>> getOrdersByUserId(@PathVariable Long userId) {
-        List<OrderResponse> orders = orderService.getOrdersByUserId(userId);
+    public ResponseEntity<CursorPageResponse<OrderResponse>> getOrdersByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageResponse<OrderResponse> orders = orderService.getOrdersByUserId(userId, status, cursor, size);
         return ResponseEntity.ok(orders);
     }
 
     @GetMapping
-    public ResponseEntity<List<OrderResponse>> getAllOrders() {
-        List<OrderResponse> orders = orderService.getAllOrders();
+    public ResponseEntity<CursorPageResponse<OrderResponse>> getAllOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageResponse<OrderResponse> orders = orderService.getAllOrders(cursor, size);
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            orderService.exportOrdersCsv(writer);
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.csv\"")
+                .body(body);
+    }
+
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<OrderResponse>> getOrdersByStatus(@PathVariable OrderStatus status) {
-        List<OrderResponse> orders = orderService.getOrdersByStatus(status);
+    public ResponseEntity<CursorPageResponse<OrderResponse>> getOrdersByStatus(
+            @PathVariable OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageResponse<OrderResponse> orders = orderService.getOrdersByStatus(status, cursor, size);
         return ResponseEntity.ok(orders);
     }
 
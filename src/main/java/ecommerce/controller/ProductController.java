@@ -1,5 +1,6 @@
 package ecommerce.controller;
 
+import ecommerce.dto.CursorPageResponse;
 import ecommerce.dto.ProductResponse;
 import ecommerce.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,14 +18,18 @@ public class ProductController {
     private ProductService productService;
 
     @GetMapping
-    public ResponseEntity<List<ProductResponse>> getAllProducts() {
-        List<ProductResponse> products = productService.getActiveProducts();
+    public ResponseEntity<CursorPageResponse<ProductResponse>> getAllProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageResponse<ProductResponse> products = productService.getActiveProducts(cursor, size);
         return ResponseEntity.ok(products);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<List<ProductResponse>> getAllProductsIncludingInactive() {
-        List<ProductResponse> products = productService.getAllProducts();
+    public ResponseEntity<CursorPageResponse<ProductResponse>> getAllProductsIncludingInactive(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageResponse<ProductResponse> products = productService.getAllProducts(cursor, size);
         return ResponseEntity.ok(products);
     }
 
@@ -35,8 +40,11 @@ public class ProductController {
     }
 
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<ProductResponse>> getProductsByCategory(@PathVariable Long categoryId) {
-        List<ProductResponse> products = productService.getProductsByCategory(categoryId);
+    public ResponseEntity<CursorPageResponse<ProductResponse>> getProductsByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageResponse<ProductResponse> products = productService.getProductsByCategory(categoryId, cursor, size);
         return ResponseEntity.ok(products);
     }
 
@@ -47,8 +55,10 @@ public class ProductController {
     }
 
     @GetMapping("/available")
-    public ResponseEntity<List<ProductResponse>> getAvailableProducts() {
-        List<ProductResponse> products = productService.getAvailableProducts();
+    public ResponseEntity<CursorPageResponse<ProductResponse>> getAvailableProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageResponse<ProductResponse> products = productService.getAvailableProducts(cursor, size);
         return ResponseEntity.ok(products);
     }
 
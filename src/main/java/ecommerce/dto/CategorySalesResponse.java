@@ -0,0 +1,38 @@
+package ecommerce.dto;
+
+import java.math.BigDecimal;
+
+public class CategorySalesResponse {
+    private Long categoryId;
+    private String categoryName;
+    private Long orderCount;
+    private Long unitsSold;
+    private BigDecimal revenue;
+
+
+    public CategorySalesResponse() {}
+
+    public CategorySalesResponse(Long categoryId, String categoryName, Long orderCount, Long unitsSold, BigDecimal revenue) {
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.orderCount = orderCount;
+        this.unitsSold = unitsSold;
+        this.revenue = revenue;
+    }
+
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public String getCategoryName() { return categoryName; }
+    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+
+    public Long getUnitsSold() { return unitsSold; }
+    public void setUnitsSold(Long unitsSold) { this.unitsSold = unitsSold; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+}
@@ -0,0 +1,34 @@
+package ecommerce.dto;
+
+import java.util.List;
+
+public class CursorPageResponse<T> {
+    private List<T> items;
+    private String nextCursor;
+    private int size;
+    private boolean hasMore;
+
+
+    public CursorPageResponse() {}
+
+
+    public CursorPageResponse(List<T> items, String nextCursor, int size) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.size = size;
+        this.hasMore = nextCursor != null;
+    }
+
+
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+    
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
@@ -0,0 +1,27 @@
+package ecommerce.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class DailySalesResponse {
+    private LocalDate date;
+    private Long orderCount;
+    private Long unitsSold;
+    private BigDecimal revenue;
+
+
+    public DailySalesResponse() {}
+
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+
+    public Long getUnitsSold() { return unitsSold; }
+    public void setUnitsSold(Long unitsSold) { this.unitsSold = unitsSold; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+}
@@ -0,0 +1,54 @@
+package ecommerce.dto;
+
+import ecommerce.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class OrderExportRow {
+    private final Long orderId;
+    private final Long userId;
+    private final String username;
+    private final OrderStatus status;
+    private final LocalDateTime orderDate;
+    private final BigDecimal orderTotal;
+    private final String shippingAddress;
+    private final Long productId;
+    private final String productName;
+    private final Integer quantity;
+    private final BigDecimal unitPrice;
+    private final BigDecimal itemTotal;
+
+
+    public OrderExportRow(Long orderId, Long userId, String username, OrderStatus status,
+                          LocalDateTime orderDate, BigDecimal orderTotal, String shippingAddress,
+                          Long productId, String productName, Integer quantity,
+                          BigDecimal unitPrice, BigDecimal itemTotal) {
+        this.orderId = orderId;
+        this.userId = userId;
+        this.username = username;
+        this.status = status;
+        this.orderDate = orderDate;
+        this.orderTotal = orderTotal;
+        this.shippingAddress = shippingAddress;
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+        this.itemTotal = itemTotal;
+    }
+
+
+    public Long getOrderId() { return orderId; }
+    public Long getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public OrderStatus getStatus() { return status; }
+    public LocalDateTime getOrderDate() { return orderDate; }
+    public BigDecimal getOrderTotal() { return orderTotal; }
+    public String getShippingAddress() { return shippingAddress; }
+    public Long getProductId() { return productId; }
+    public String getProductName() { return productName; }
+    public Integer getQuantity() { return quantity; }
+    public BigDecimal getUnitPrice() { return unitPrice; }
+    public BigDecimal getItemTotal() { return itemTotal; }
+}
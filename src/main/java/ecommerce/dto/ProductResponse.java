@@ -2,45 +2,40 @@ package ecommerce.dto;
 
 import java.math.BigDecimal;
 
+// Immutable: ProductCache hands the same instance to every caller
 public class ProductResponse {
-    private Long id;
-    private String name;
-    private String description;
-    private BigDecimal price;
-    private Integer stockQuantity;
-    private String imageUrl;
-    private String categoryName;
-    private Long categoryId;
-    private boolean active;
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final BigDecimal price;
+    private final Integer stockQuantity;
+    private final String imageUrl;
+    private final String categoryName;
+    private final Long categoryId;
+    private final boolean active;
 
 
-    public ProductResponse() {}
+    public ProductResponse(Long id, String name, String description, BigDecimal price, Integer stockQuantity,
+                           String imageUrl, String categoryName, Long categoryId, boolean active) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.stockQuantity = stockQuantity;
+        this.imageUrl = imageUrl;
+        this.categoryName = categoryName;
+        this.categoryId = categoryId;
+        this.active = active;
+    }
+
 
-    // Getters and Setters
     public Long getId() { return id; }
-    public void setId(Long id) { this.id = id; }
-    
     public String getName() { return name; }
-    public void setName(String name) { this.name = name; }
-    
     public String getDescription() { return description; }
-    public void setDescription(String description) { this.description = description; }
-    
     public BigDecimal getPrice() { return price; }
-    public void setPrice(BigDecimal price) { this.price = price; }
-    
     public Integer getStockQuantity() { return stockQuantity; }
-    public void setStockQuantity(Integer stockQuantity) { this.stockQuantity = stockQuantity; }
-    
     public String getImageUrl() { return imageUrl; }
-    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
-    
     public String getCategoryName() { return categoryName; }
-    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
-    
     public Long getCategoryId() { return categoryId; }
-    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
-    
     public boolean isActive() { return active; }
-    public void setActive(boolean active) { this.active = active; }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package ecommerce.dto;
+
+import java.math.BigDecimal;
+
+public class ProductSalesResponse {
+    private Long productId;
+    private String productName;
+    private Long orderCount;
+    private Long unitsSold;
+    private BigDecimal revenue;
+
+
+    public ProductSalesResponse() {}
+
+    public ProductSalesResponse(Long productId, String productName, Long orderCount, Long unitsSold, BigDecimal revenue) {
+        this.productId = productId;
+        this.productName = productName;
+        this.orderCount = orderCount;
+        this.unitsSold = unitsSold;
+        this.revenue = revenue;
+    }
+
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+
+    public Long getUnitsSold() { return unitsSold; }
+    public void setUnitsSold(Long unitsSold) { this.unitsSold = unitsSold; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+}
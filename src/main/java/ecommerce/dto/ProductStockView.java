@@ -0,0 +1,8 @@
+package ecommerce.dto;
+
+public interface ProductStockView {
+    Long getId();
+    String getName();
+    Integer getStockQuantity();
+    boolean isActive();
+}
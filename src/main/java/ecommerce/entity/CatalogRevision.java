@@ -0,0 +1,36 @@
+package ecommerce.entity;
+
+import jakarta.persistence.*;
+
+// Shared counters behind the catalog ETags, one row per scope. Every node reads the same rows, so a tag
+// stands for the same catalog state whichever node handed it out.
+@Entity
+@Table(name = "catalog_revisions")
+public class CatalogRevision {
+    // Product and category content: names, prices, descriptions, categories, product status
+    public static final String CONTENT = "content";
+    // Stock levels, which move with every checkout
+    public static final String STOCK = "stock";
+
+    @Id
+    @Column(length = 32)
+    private String scope;
+
+    @Column(nullable = false)
+    private Long version;
+
+
+    public CatalogRevision() {}
+
+    public CatalogRevision(String scope, Long version) {
+        this.scope = scope;
+        this.version = version;
+    }
+
+
+    public String getScope() { return scope; }
+    public void setScope(String scope) { this.scope = scope; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package ecommerce.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "sales_category_daily",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"sales_date", "category_id"}))
+public class CategoryDailySales {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate salesDate;
+
+    @Column(nullable = false)
+    private Long categoryId;
+
+    private String categoryName;
+    private Long orderCount;
+    private Long unitsSold;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+
+    public CategoryDailySales() {}
+
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDate getSalesDate() { return salesDate; }
+    public void setSalesDate(LocalDate salesDate) { this.salesDate = salesDate; }
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public String getCategoryName() { return categoryName; }
+    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+
+    public Long getUnitsSold() { return unitsSold; }
+    public void setUnitsSold(Long unitsSold) { this.unitsSold = unitsSold; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+}
@@ -0,0 +1,34 @@
+package ecommerce.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "sales_daily")
+public class DailySales {
+    @Id
+    private LocalDate salesDate;
+
+    private Long orderCount;
+    private Long unitsSold;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+
+    public DailySales() {}
+
+
+    public LocalDate getSalesDate() { return salesDate; }
+    public void setSalesDate(LocalDate salesDate) { this.salesDate = salesDate; }
+
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+
+    public Long getUnitsSold() { return unitsSold; }
+    public void setUnitsSold(Long unitsSold) { this.unitsSold = unitsSold; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+}
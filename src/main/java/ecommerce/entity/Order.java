@@ -4,6 +4,9 @@ import ecommerce.entity.OrderItem;
 import ecommerce.entity.OrderStatus;
 import ecommerce.entity.User;
 import jakarta.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -12,11 +15,29 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_date", columnList = "user_id, order_date"),
+        @Index(name = "idx_orders_status_date", columnList = "status, order_date"),
+        @Index(name = "idx_orders_date", columnList = "order_date")
+})
 @EntityListeners(AuditingEntityListener.class)
+@NamedEntityGraph(
+        name = "Order.details",
+        attributeNodes = {
+                @NamedAttributeNode(value = "user", subgraph = "user"),
+                @NamedAttributeNode(value = "orderItems", subgraph = "orderItems")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("cart")),
+                @NamedSubgraph(name = "orderItems", attributeNodes = @NamedAttributeNode(value = "product", subgraph = "product")),
+                @NamedSubgraph(name = "product", attributeNodes = @NamedAttributeNode("category"))
+        }
+)
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "orders_seq")
+    @GenericGenerator(name = "orders_seq", type = PooledSequenceGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "orders_seq"))
     private Long id;
 
     @ManyToOne
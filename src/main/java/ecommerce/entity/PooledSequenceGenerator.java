@@ -0,0 +1,27 @@
+package ecommerce.entity;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+// A pooled sequence whose block size comes from ecommerce.jpa.id-allocation-size (default 50) instead of an
+// annotation attribute, so it can be tuned per deployment. Entities name the sequence with the
+// sequence_name parameter.
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE = "ecommerce.jpa.id-allocation-size";
+
+    private static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) {
+        int allocationSize = serviceRegistry.requireService(ConfigurationService.class)
+                .getSetting(ALLOCATION_SIZE, StandardConverters.INTEGER, DEFAULT_ALLOCATION_SIZE);
+        parameters.setProperty(INCREMENT_PARAM, Integer.toString(allocationSize));
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
\ No newline at end of file
@@ -4,6 +4,10 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -13,10 +17,12 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "products")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, ProductEntityListener.class})
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "products_seq")
+    @GenericGenerator(name = "products_seq", type = PooledSequenceGenerator.class,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "products_seq"))
     private Long id;
 
     @NotBlank(message = "Product name is required")
@@ -40,6 +46,12 @@ public class Product {
 
     private boolean active = true;
 
+    // Moved only by the stock UPDATE statements, in the same statement as the quantity; it versions the
+    // product's own ETag, so a stock change does not have to invalidate every catalog response
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Long stockVersion;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
@@ -73,6 +85,8 @@ public class Product {
     
     public boolean isActive() { return active; }
     public void setActive(boolean active) { this.active = active; }
+
+    public Long getStockVersion() { return stockVersion; }
     
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
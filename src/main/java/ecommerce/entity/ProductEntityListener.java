@@ -0,0 +1,26 @@
+package ecommerce.entity;
+
+import ecommerce.event.ProductChangedEvent;
+import ecommerce.event.ProductChangedEvent.ChangeType;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+public class ProductEntityListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Product product) {
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), ChangeType.SAVED));
+    }
+
+    @PostRemove
+    public void onRemove(Product product) {
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), ChangeType.DELETED));
+    }
+}
@@ -0,0 +1,42 @@
+package ecommerce.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+// Logged-out tokens, shared by every node. Keyed by the same SHA-256 digest the nodes cache tokens under;
+// a row is only needed until the token would have expired anyway.
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at"),
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+})
+public class RevokedToken {
+    @Id
+    @Column(length = 44)
+    private String digest;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false)
+    private Instant revokedAt;
+
+
+    public RevokedToken() {}
+
+    public RevokedToken(String digest, Instant expiresAt, Instant revokedAt) {
+        this.digest = digest;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+
+
+    public String getDigest() { return digest; }
+    public void setDigest(String digest) { this.digest = digest; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+
+    public Instant getRevokedAt() { return revokedAt; }
+    public void setRevokedAt(Instant revokedAt) { this.revokedAt = revokedAt; }
+}
\ No newline at end of file
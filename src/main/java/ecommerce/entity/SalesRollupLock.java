@@ -0,0 +1,25 @@
+package ecommerce.entity;
+
+import jakarta.persistence.*;
+
+// A single row that orders rollup writers against a rebuild: every rollup update holds it shared until
+// commit and a rebuild holds it exclusively, so no update can land between the rebuild's delete and insert
+@Entity
+@Table(name = "sales_rollup_lock")
+public class SalesRollupLock {
+    public static final Integer ID = 1;
+
+    @Id
+    private Integer id;
+
+
+    public SalesRollupLock() {}
+
+    public SalesRollupLock(Integer id) {
+        this.id = id;
+    }
+
+
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package ecommerce.event;
+
+public class CategoryChangedEvent {
+
+    private final Long categoryId;
+
+    public CategoryChangedEvent(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Long getCategoryId() { return categoryId; }
+}
@@ -0,0 +1,12 @@
+package ecommerce.event;
+
+public class OrderPlacedEvent {
+
+    private final Long orderId;
+
+    public OrderPlacedEvent(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Long getOrderId() { return orderId; }
+}
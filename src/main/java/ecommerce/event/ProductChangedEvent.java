@@ -0,0 +1,22 @@
+package ecommerce.event;
+
+public class ProductChangedEvent {
+
+    public enum ChangeType {
+        SAVED,
+        DELETED,
+        STOCK_UPDATED
+    }
+
+    private final Long productId;
+    private final ChangeType changeType;
+
+    public ProductChangedEvent(Long productId, ChangeType changeType) {
+        this.productId = productId;
+        this.changeType = changeType;
+    }
+
+    public Long getProductId() { return productId; }
+
+    public ChangeType getChangeType() { return changeType; }
+}
@@ -0,0 +1,11 @@
+package ecommerce.exception;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+    
+    public IdempotencyConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package ecommerce.exception;
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package ecommerce.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+    
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
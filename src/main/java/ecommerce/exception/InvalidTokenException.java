@@ -0,0 +1,11 @@
+package ecommerce.exception;
+
+public class InvalidTokenException extends RuntimeException {
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+    
+    public InvalidTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,131 @@
+package ecommerce.fulfillment;
+
+import ecommerce.event.OrderPlacedEvent;
+import ecommerce.service.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Moves placed orders from PENDING to CONFIRMED off the checkout path. Orders are queued once their
+// checkout commits, and consumer threads confirm them in batches of one UPDATE each. The queue is
+// bounded and never blocks checkout: an order that does not fit, or was queued when the application
+// stopped, stays PENDING until the sweeper finds it and queues it again.
+@Component
+public class OrderFulfillmentQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderFulfillmentQueue.class);
+
+    @Value("${ecommerce.orders.fulfillment.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${ecommerce.orders.fulfillment.consumers:2}")
+    private int consumers;
+
+    @Value("${ecommerce.orders.fulfillment.batch-size:100}")
+    private int batchSize;
+
+    @Value("${ecommerce.orders.fulfillment.stale-after:PT1M}")
+    private Duration staleAfter;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<Long> queue;
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        meterRegistry.gauge("orders.fulfillment.queue", queue, BlockingQueue::size);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(consumers, runnable -> {
+            Thread thread = new Thread(runnable, "order-fulfillment-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        for (int i = 0; i < consumers; i++) {
+            executor.execute(this::consume);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    // Runs after the checkout commits, so consumers never see an order that could still roll back
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        enqueue(event.getOrderId());
+    }
+
+    public boolean enqueue(Long orderId) {
+        if (!queue.offer(orderId)) {
+            log.debug("Fulfillment queue is full; order {} is left for the sweeper", orderId);
+            return false;
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${ecommerce.orders.fulfillment.sweep-interval:PT1M}")
+    public void sweepStaleOrders() {
+        int capacity = queue.remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+
+        List<Long> orderIds = orderService.findPendingOrderIdsPlacedBefore(LocalDateTime.now().minus(staleAfter), capacity);
+        if (!orderIds.isEmpty()) {
+            log.info("Requeueing {} pending orders", orderIds.size());
+            orderIds.forEach(this::enqueue);
+        }
+    }
+
+    private void consume() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Long orderId = queue.poll(1, TimeUnit.SECONDS);
+                if (orderId == null) {
+                    continue;
+                }
+                batch.add(orderId);
+                queue.drainTo(batch, batchSize - 1);
+                orderService.confirmOrders(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.warn("Failed to confirm {} orders; the sweeper will retry them", batch.size(), ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package ecommerce.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ecommerce.exception.IdempotencyConflictException;
+import ecommerce.exception.IdempotencyKeyMismatchException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Remembers the outcome of recent requests by their Idempotency-Key. The first request with a key runs;
+// duplicates arriving while it runs wait for its result, and later retries get the stored result back
+// without running again. Failed requests are forgotten so the client can retry them. A key reused with a
+// different request body is rejected rather than answered with the first request's result.
+@Component
+public class IdempotentRequests {
+
+    @Value("${ecommerce.idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    @Value("${ecommerce.idempotency.maximum-size:100000}")
+    private long maximumSize;
+
+    @Value("${ecommerce.idempotency.wait-timeout:PT10S}")
+    private Duration waitTimeout;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Cache<String, Entry> results;
+
+    @PostConstruct
+    public void init() {
+        results = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "idempotency_keys");
+    }
+
+    // Keys are scoped (for example to a user) so one client cannot replay another's response
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> execute(String scope, String key, Object request, Supplier<T> action) {
+        String cacheKey = scope + ":" + key;
+        Entry entry = new Entry(fingerprint(request));
+        // get() rather than the map view so hits and misses reach the cache statistics
+        Entry existing = results.get(cacheKey, k -> entry);
+        if (existing != entry) {
+            if (!MessageDigest.isEqual(existing.fingerprint, entry.fingerprint)) {
+                throw new IdempotencyKeyMismatchException(
+                        "This Idempotency-Key was already used with a different request body");
+            }
+            return new Result<>((T) await(existing.result), true);
+        }
+
+        try {
+            T value = action.get();
+            entry.result.complete(value);
+            return new Result<>(value, false);
+        } catch (RuntimeException | Error ex) {
+            results.asMap().remove(cacheKey, entry);
+            entry.result.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Could not fingerprint the request", ex);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> existing) {
+        try {
+            return existing.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is still in progress", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for a request with this Idempotency-Key", ex);
+        } catch (ExecutionException ex) {
+            // The original request failed; its duplicates see the same failure
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private static class Entry {
+        private final byte[] fingerprint;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Entry(byte[] fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    public static class Result<T> {
+        private final T value;
+        private final boolean replayed;
+
+        public Result(T value, boolean replayed) {
+            this.value = value;
+            this.replayed = replayed;
+        }
+
+        public T getValue() { return value; }
+        public boolean isReplayed() { return replayed; }
+    }
+}
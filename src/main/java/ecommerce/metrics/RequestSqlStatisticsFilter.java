@@ -0,0 +1,136 @@
+package ecommerce.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Records how many statements each request ran, per matched URI pattern. In development the totals can
+// also go to the log or to a Server-Timing header, which is added just before the body is written.
+public class RequestSqlStatisticsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestSqlStatisticsFilter.class);
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean serverTimingHeader;
+    private final boolean logRequests;
+    private final Map<String, RequestMeters> meters = new ConcurrentHashMap<>();
+
+    public RequestSqlStatisticsFilter(MeterRegistry meterRegistry, boolean serverTimingHeader, boolean logRequests) {
+        this.meterRegistry = meterRegistry;
+        this.serverTimingHeader = serverTimingHeader;
+        this.logRequests = logRequests;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatistics stats = SqlStatistics.current();
+        long statementsBefore = stats.getStatements();
+        long nanosBefore = stats.getNanos();
+        ServerTimingResponse timingResponse = serverTimingHeader
+                ? new ServerTimingResponse(response, stats, statementsBefore, nanosBefore) : null;
+
+        try {
+            filterChain.doFilter(request, timingResponse != null ? timingResponse : response);
+        } finally {
+            if (timingResponse != null) {
+                timingResponse.addServerTiming();
+            }
+            long statements = stats.getStatements() - statementsBefore;
+            long nanos = stats.getNanos() - nanosBefore;
+            String uri = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            RequestMeters requestMeters = metersFor(uri != null ? uri : UNKNOWN_URI);
+            requestMeters.statements.record(statements);
+            requestMeters.time.record(nanos, TimeUnit.NANOSECONDS);
+            if (logRequests) {
+                log.info("{} {} ran {} SQL statements in {} ms", request.getMethod(), request.getRequestURI(),
+                        statements, TimeUnit.NANOSECONDS.toMillis(nanos));
+            }
+        }
+    }
+
+    private RequestMeters metersFor(String uri) {
+        RequestMeters requestMeters = meters.get(uri);
+        if (requestMeters == null) {
+            requestMeters = meters.computeIfAbsent(uri, RequestMeters::new);
+        }
+        return requestMeters;
+    }
+
+    private class RequestMeters {
+        private final DistributionSummary statements;
+        private final Timer time;
+
+        private RequestMeters(String uri) {
+            statements = DistributionSummary.builder("ecommerce.http.sql.statements")
+                    .tag("uri", uri)
+                    .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                    .register(meterRegistry);
+            time = Timer.builder("ecommerce.http.sql.time")
+                    .tag("uri", uri)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static class ServerTimingResponse extends HttpServletResponseWrapper {
+        private final SqlStatistics stats;
+        private final long statementsBefore;
+        private final long nanosBefore;
+        private boolean added;
+
+        private ServerTimingResponse(HttpServletResponse response, SqlStatistics stats, long statementsBefore,
+                                     long nanosBefore) {
+            super(response);
+            this.stats = stats;
+            this.statementsBefore = statementsBefore;
+            this.nanosBefore = nanosBefore;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        private void addServerTiming() {
+            if (added || isCommitted()) {
+                return;
+            }
+            added = true;
+            double millis = (stats.getNanos() - nanosBefore) / 1_000_000.0;
+            addHeader("Server-Timing", String.format(Locale.ROOT, "sql;desc=\"statements=%d\";dur=%.2f",
+                    stats.getStatements() - statementsBefore, millis));
+        }
+    }
+}
\ No newline at end of file
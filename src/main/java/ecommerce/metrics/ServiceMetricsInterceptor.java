@@ -0,0 +1,97 @@
+package ecommerce.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Meters are registered up front for each public method of an instrumented class, so a call costs
+// a map lookup, a thread-local read and two clock reads; no tags or builders are allocated per call
+public class ServiceMetricsInterceptor implements MethodInterceptor {
+
+    static final String METER_NAME = "ecommerce.service";
+    static final String STATEMENTS_METER_NAME = "ecommerce.service.sql.statements";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean histogram;
+    private final Map<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    public ServiceMetricsInterceptor(MeterRegistry meterRegistry, boolean histogram) {
+        this.meterRegistry = meterRegistry;
+        this.histogram = histogram;
+    }
+
+    public void register(Class<?> targetClass) {
+        for (Method method : targetClass.getMethods()) {
+            if (method.getDeclaringClass() != Object.class && !Modifier.isStatic(method.getModifiers())) {
+                timers.computeIfAbsent(method, key -> new MethodTimers(targetClass, key));
+            }
+        }
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MethodTimers methodTimers = timers.get(invocation.getMethod());
+        if (methodTimers == null) {
+            methodTimers = timersFor(invocation);
+        }
+
+        SqlStatistics sqlStatistics = SqlStatistics.current();
+        long statementsBefore = sqlStatistics.getStatements();
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            methodTimers.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable ex) {
+            methodTimers.error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        } finally {
+            // Includes statements run by nested service calls and by the commit of this method's transaction
+            methodTimers.statements.record(sqlStatistics.getStatements() - statementsBefore);
+        }
+    }
+
+    // Methods reached through a path not seen at registration, such as an interface method on a JDK proxy
+    private MethodTimers timersFor(MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() != null
+                ? AopUtils.getTargetClass(invocation.getThis()) : invocation.getMethod().getDeclaringClass();
+        return timers.computeIfAbsent(invocation.getMethod(), method -> new MethodTimers(targetClass, method));
+    }
+
+    private class MethodTimers {
+        private final Timer success;
+        private final Timer error;
+        private final DistributionSummary statements;
+
+        private MethodTimers(Class<?> targetClass, Method method) {
+            success = timer(targetClass, method, "success");
+            error = timer(targetClass, method, "error");
+            statements = DistributionSummary.builder(STATEMENTS_METER_NAME)
+                    .tag("class", targetClass.getSimpleName())
+                    .tag("method", method.getName())
+                    .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                    .register(meterRegistry);
+        }
+    }
+
+    private Timer timer(Class<?> targetClass, Method method, String outcome) {
+        return Timer.builder(METER_NAME)
+                .tag("class", targetClass.getSimpleName())
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram(histogram)
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+}
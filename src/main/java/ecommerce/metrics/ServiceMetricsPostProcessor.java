@@ -0,0 +1,38 @@
+package ecommerce.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+// Adds the timing interceptor to @TimedService beans, ahead of the transaction advice so commit time
+// is part of the measurement. The registry is looked up on first use to avoid initialising it early.
+public class ServiceMetricsPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final boolean histogram;
+    private ServiceMetricsInterceptor interceptor;
+
+    public ServiceMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry, boolean histogram) {
+        this.meterRegistry = meterRegistry;
+        this.histogram = histogram;
+        setBeforeExistingAdvisors(true);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        if (!targetClass.isAnnotationPresent(TimedService.class)) {
+            return bean;
+        }
+
+        if (interceptor == null) {
+            interceptor = new ServiceMetricsInterceptor(meterRegistry.getObject(), histogram);
+            advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(TimedService.class, true), interceptor);
+        }
+        interceptor.register(targetClass);
+        return super.postProcessAfterInitialization(bean, beanName);
+    }
+}
@@ -0,0 +1,26 @@
+package ecommerce.metrics;
+
+// Statements executed and time spent in the driver by the current thread since it started. Callers
+// take a snapshot before a unit of work and subtract it afterwards, so nothing needs resetting.
+public final class SqlStatistics {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = ThreadLocal.withInitial(SqlStatistics::new);
+
+    private long statements;
+    private long nanos;
+
+    private SqlStatistics() {
+    }
+
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    void record(long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+    }
+
+    public long getStatements() { return statements; }
+    public long getNanos() { return nanos; }
+}
\ No newline at end of file
@@ -0,0 +1,144 @@
+package ecommerce.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Counts every statement execution against the calling thread's SqlStatistics and logs executions
+// slower than the threshold together with their bind parameters. Parameters are only captured
+// while slow query logging is on.
+public class StatementStatisticsDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementStatisticsDataSource.class);
+
+    private final long slowThresholdNanos;
+
+    public StatementStatisticsDataSource(DataSource targetDataSource, Duration slowThreshold) {
+        super(targetDataSource);
+        this.slowThresholdNanos = slowThreshold.isZero() || slowThreshold.isNegative() ? 0 : slowThreshold.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxyConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxyConnection(super.getConnection(username, password));
+    }
+
+    private Connection proxyConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof CallableStatement statement) {
+                        return proxyStatement(statement, CallableStatement.class, (String) args[0]);
+                    }
+                    if (result instanceof PreparedStatement statement) {
+                        return proxyStatement(statement, PreparedStatement.class, (String) args[0]);
+                    }
+                    if (result instanceof Statement statement) {
+                        return proxyStatement(statement, Statement.class, null);
+                    }
+                    return result;
+                });
+    }
+
+    private Object proxyStatement(Statement statement, Class<? extends Statement> type, String sql) {
+        InvocationHandler handler = new StatementHandler(statement, sql, sql != null && slowThresholdNanos > 0);
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String sql;
+        private final List<Object> parameters;
+        private int batched;
+
+        private StatementHandler(Statement statement, String sql, boolean captureParameters) {
+            this.statement = statement;
+            this.sql = sql;
+            this.parameters = captureParameters ? new ArrayList<>() : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (parameters != null) {
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    setParameter(index, name.equals("setNull") ? null : args[1]);
+                } else if (name.equals("clearParameters")) {
+                    parameters.clear();
+                }
+            }
+            if (name.equals("addBatch")) {
+                batched++;
+            } else if (name.equals("clearBatch")) {
+                batched = 0;
+            }
+            return StatementStatisticsDataSource.invoke(statement, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            long start = System.nanoTime();
+            try {
+                return StatementStatisticsDataSource.invoke(statement, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                SqlStatistics.current().record(elapsed);
+                if (slowThresholdNanos > 0 && elapsed >= slowThresholdNanos) {
+                    // Statement.execute(sql) carries its own SQL; prepared statements run the SQL they were built with
+                    logSlow(args != null && args.length > 0 && args[0] instanceof String text ? text : null, elapsed);
+                }
+                if (method.getName().equals("executeBatch") || method.getName().equals("executeLargeBatch")) {
+                    batched = 0;
+                }
+            }
+        }
+
+        private void setParameter(int index, Object value) {
+            while (parameters.size() < index) {
+                parameters.add(null);
+            }
+            parameters.set(index - 1, value);
+        }
+
+        private void logSlow(String executedSql, long elapsedNanos) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            if (executedSql != null || parameters == null) {
+                log.warn("Slow SQL ({} ms): {}", millis, executedSql != null ? executedSql : sql);
+            } else if (batched > 0) {
+                log.warn("Slow SQL ({} ms, batch of {}, last parameters {}): {}", millis, batched, parameters, sql);
+            } else {
+                log.warn("Slow SQL ({} ms, parameters {}): {}", millis, parameters, sql);
+            }
+        }
+    }
+}
\ No newline at end of file
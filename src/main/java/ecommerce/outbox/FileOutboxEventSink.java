@@ -0,0 +1,50 @@
+package ecommerce.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import ecommerce.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Appends one JSON document per event to a file, for example for a log shipper to pick up
+@Component
+@ConditionalOnProperty(name = "ecommerce.outbox.sink", havingValue = "file")
+public class FileOutboxEventSink implements OutboxEventSink {
+
+    @Value("${ecommerce.outbox.file.path:outbox-events.jsonl}")
+    private Path path;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxEvent event : events) {
+                ObjectNode line = objectMapper.createObjectNode();
+                line.put("id", event.getId());
+                line.put("aggregateType", event.getAggregateType());
+                line.put("aggregateId", event.getAggregateId());
+                line.put("eventType", event.getEventType());
+                line.put("createdAt", event.getCreatedAt().toString());
+                line.set("payload", objectMapper.readTree(event.getPayload()));
+                writer.write(objectMapper.writeValueAsString(line));
+                writer.newLine();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to append outbox events to " + path, ex);
+        }
+    }
+}
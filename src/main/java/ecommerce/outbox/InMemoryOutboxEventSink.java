@@ -0,0 +1,36 @@
+package ecommerce.outbox;
+
+import ecommerce.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// Keeps the most recent events in memory; meant for tests and local development
+@Component
+@ConditionalOnProperty(name = "ecommerce.outbox.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOutboxEventSink implements OutboxEventSink {
+
+    @Value("${ecommerce.outbox.memory.capacity:1000}")
+    private int capacity;
+
+    private final Deque<OutboxEvent> events = new ArrayDeque<>();
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) {
+        for (OutboxEvent event : batch) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+        }
+    }
+
+    public synchronized List<OutboxEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+}
@@ -0,0 +1,13 @@
+package ecommerce.outbox;
+
+import ecommerce.entity.OutboxEvent;
+
+import java.util.List;
+
+// Delivery is at least once: throwing leaves the batch in the outbox to be retried, so sinks should
+// tolerate duplicates. Events of one aggregate arrive in the order they were written, because each is
+// written under that aggregate's row lock and batches are relayed one at a time in id order. There is
+// no order across aggregates; id order is not commit order.
+public interface OutboxEventSink {
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,77 @@
+package ecommerce.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ecommerce.entity.OutboxEvent;
+import ecommerce.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Writes change events into the outbox table as part of the caller's transaction, so an event
+// exists exactly when the change it describes has committed
+@Component
+@Transactional
+public class OutboxEvents {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxEventSink outboxEventSink;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, Long aggregateId, String eventType, Map<String, Object> payload) {
+        outboxEventRepository.save(toEvent(aggregateType, aggregateId, eventType, payload));
+    }
+
+    // One event per aggregate, written in one batch in the map's iteration order
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(String aggregateType, String eventType, Map<Long, Map<String, Object>> payloadsByAggregateId) {
+        List<OutboxEvent> events = new ArrayList<>(payloadsByAggregateId.size());
+        payloadsByAggregateId.forEach((aggregateId, payload) ->
+                events.add(toEvent(aggregateType, aggregateId, eventType, payload)));
+        outboxEventRepository.insertBatch(events);
+    }
+
+    // Publishes the oldest events and deletes them in the same transaction; if the sink fails,
+    // nothing is deleted and the batch is published again on the next run. Under MySQL's default
+    // REPEATABLE READ the locking read would also take the gap after the last row, and every outbox
+    // insert would wait behind the sink; at READ COMMITTED only the rows of the batch are locked.
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public int relayBatch(int batchSize) {
+        List<OutboxEvent> events = outboxEventRepository.findNextBatch(Limit.of(batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        outboxEventSink.publish(events);
+        outboxEventRepository.deleteAllInBatch(events);
+        return events.size();
+    }
+
+    private OutboxEvent toEvent(String aggregateType, Long aggregateId, String eventType, Map<String, Object> payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setEventType(eventType);
+        event.setCreatedAt(LocalDateTime.now());
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Outbox payload is not serializable: " + eventType, ex);
+        }
+        return event;
+    }
+}
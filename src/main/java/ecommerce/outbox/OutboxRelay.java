@@ -0,0 +1,37 @@
+package ecommerce.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Value("${ecommerce.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Autowired
+    private OutboxEvents outboxEvents;
+
+    // Keeps draining while batches come back full, so a backlog clears without waiting for the next run
+    @Scheduled(fixedDelayString = "${ecommerce.outbox.relay-interval:PT1S}")
+    public void relay() {
+        try {
+            int published;
+            do {
+                published = outboxEvents.relayBatch(batchSize);
+            } while (published == batchSize);
+        } catch (PessimisticLockingFailureException ex) {
+            // Another node is relaying; its batch has to be gone before the next one can be published
+            log.debug("Outbox is being relayed elsewhere", ex);
+        } catch (RuntimeException ex) {
+            log.warn("Outbox relay failed; pending events will be retried", ex);
+        }
+    }
+}
@@ -1,14 +1,25 @@
 package ecommerce.repository;
 
 import ecommerce.entity.Cart;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
+    @EntityGraph("Cart.details")
     Optional<Cart> findByUserId(Long userId);
+    @EntityGraph("Cart.details")
+    List<Cart> findByUserIdIn(Collection<Long> userIds);
     boolean existsByUserId(Long userId);
     void deleteByUserId(Long userId);
+
+    // Locks only the cart row; a locking read through Cart.details would also lock its lines' products
+    @Query(value = "SELECT id FROM carts WHERE user_id = :userId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockByUserId(Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package ecommerce.repository;
+
+import ecommerce.entity.CatalogRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+@Repository
+public interface CatalogRevisionRepository extends JpaRepository<CatalogRevision, String> {
+
+    // Called once the writing transaction has completed, so it always needs a transaction of its own
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("UPDATE CatalogRevision r SET r.version = r.version + 1 WHERE r.scope IN :scopes")
+    int increment(@Param("scopes") Collection<String> scopes);
+}
\ No newline at end of file
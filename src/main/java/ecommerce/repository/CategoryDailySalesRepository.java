@@ -0,0 +1,34 @@
+package ecommerce.repository;
+
+import ecommerce.dto.CategorySalesResponse;
+import ecommerce.entity.CategoryDailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface CategoryDailySalesRepository extends JpaRepository<CategoryDailySales, Long>, CategoryDailySalesRepositoryCustom {
+
+    @Query("SELECT new ecommerce.dto.CategorySalesResponse(s.categoryId, MAX(s.categoryName), " +
+           "SUM(s.orderCount), SUM(s.unitsSold), SUM(s.revenue)) " +
+           "FROM CategoryDailySales s WHERE s.salesDate BETWEEN :from AND :to " +
+           "GROUP BY s.categoryId HAVING SUM(s.orderCount) > 0 " +
+           "ORDER BY SUM(s.revenue) DESC, s.categoryId")
+    List<CategorySalesResponse> findCategorySales(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_category_daily (sales_date, category_id, category_name, order_count, units_sold, revenue) " +
+                   "SELECT CAST(o.order_date AS DATE), c.id, MAX(c.name), COUNT(DISTINCT o.id), " +
+                   "SUM(oi.quantity), SUM(oi.total_price) " +
+                   "FROM orders o JOIN order_items oi ON oi.order_id = o.id " +
+                   "JOIN products p ON p.id = oi.product_id JOIN categories c ON c.id = p.category_id " +
+                   "WHERE o.status <> 'CANCELLED' " +
+                   "GROUP BY CAST(o.order_date AS DATE), c.id",
+           nativeQuery = true)
+    int rebuildFromOrders();
+}
@@ -0,0 +1,9 @@
+package ecommerce.repository;
+
+import ecommerce.entity.CategoryDailySales;
+
+import java.util.List;
+
+public interface CategoryDailySalesRepositoryCustom {
+    int[] addSalesBatch(List<CategoryDailySales> deltas);
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+package ecommerce.repository;
+
+import ecommerce.entity.CategoryDailySales;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CategoryDailySalesRepositoryCustomImpl implements CategoryDailySalesRepositoryCustom {
+
+    private static final String ADD_SALES_SQL =
+            "INSERT INTO sales_category_daily (sales_date, category_id, category_name, order_count, units_sold, revenue) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE category_name = VALUES(category_name), " +
+            "order_count = order_count + VALUES(order_count), " +
+            "units_sold = units_sold + VALUES(units_sold), revenue = revenue + VALUES(revenue)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Same contract as the product rollup: one batch, rows in key order
+    @Override
+    public int[] addSalesBatch(List<CategoryDailySales> deltas) {
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+        for (CategoryDailySales delta : deltas) {
+            batchArgs.add(new Object[] { delta.getSalesDate(), delta.getCategoryId(), delta.getCategoryName(),
+                    delta.getOrderCount(), delta.getUnitsSold(), delta.getRevenue() });
+        }
+        return jdbcTemplate.batchUpdate(ADD_SALES_SQL, batchArgs);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package ecommerce.repository;
+
+import ecommerce.entity.DailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailySalesRepository extends JpaRepository<DailySales, LocalDate> {
+
+    List<DailySales> findBySalesDateBetweenOrderBySalesDateAsc(LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily (sales_date, order_count, units_sold, revenue) " +
+                   "VALUES (:salesDate, :orderCount, :unitsSold, :revenue) " +
+                   "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), " +
+                   "units_sold = units_sold + VALUES(units_sold), revenue = revenue + VALUES(revenue)",
+           nativeQuery = true)
+    int addSales(@Param("salesDate") LocalDate salesDate, @Param("orderCount") long orderCount,
+                 @Param("unitsSold") long unitsSold, @Param("revenue") BigDecimal revenue);
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily (sales_date, order_count, units_sold, revenue) " +
+                   "SELECT CAST(o.order_date AS DATE), COUNT(DISTINCT o.id), SUM(oi.quantity), SUM(oi.total_price) " +
+                   "FROM orders o JOIN order_items oi ON oi.order_id = o.id " +
+                   "WHERE o.status <> 'CANCELLED' " +
+                   "GROUP BY CAST(o.order_date AS DATE)",
+           nativeQuery = true)
+    int rebuildFromOrders();
+}
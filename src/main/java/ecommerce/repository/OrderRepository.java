@@ -1,23 +1,95 @@
 package ecommerce.repository;
 
+import ecommerce.dto.OrderExportRow;
 import ecommerce.entity.Order;
 import ecommerce.entity.OrderStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByUserIdOrderByOrderDateDesc(Long userId);
-    List<Order> findByStatus(OrderStatus status);
-    List<Order> findByUserIdAndStatus(Long userId, OrderStatus status);
-    
+    // Finders used for mapping to OrderResponse load user, items and products in a single query
+    @Override
+    @EntityGraph("Order.details")
+    Optional<Order> findById(Long id);
+
+    @Override
+    @EntityGraph("Order.details")
+    List<Order> findAll();
+
+    @EntityGraph("Order.details")
+    List<Order> findAllByIdIn(Collection<Long> ids);
+
+    // Keyset pages, newest first on (orderDate, id). Each one is a range scan on the matching index
+    // (InnoDB appends the primary key to secondary indexes), so the page depth does not matter.
+    @Query("SELECT o.id FROM Order o WHERE o.user.id = :userId " +
+           "AND o.orderDate <= :beforeDate AND (o.orderDate < :beforeDate OR o.id < :beforeId) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Long> findIdsByUserIdBefore(Long userId, LocalDateTime beforeDate, Long beforeId, Limit limit);
+
+    @Query("SELECT o.id FROM Order o WHERE o.user.id = :userId AND o.status = :status " +
+           "AND o.orderDate <= :beforeDate AND (o.orderDate < :beforeDate OR o.id < :beforeId) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Long> findIdsByUserIdAndStatusBefore(Long userId, OrderStatus status, LocalDateTime beforeDate,
+                                              Long beforeId, Limit limit);
+
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status " +
+           "AND o.orderDate <= :beforeDate AND (o.orderDate < :beforeDate OR o.id < :beforeId) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Long> findIdsByStatusBefore(OrderStatus status, LocalDateTime beforeDate, Long beforeId, Limit limit);
+
+    @Query("SELECT o.id FROM Order o " +
+           "WHERE o.orderDate <= :beforeDate AND (o.orderDate < :beforeDate OR o.id < :beforeId) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Long> findIdsBefore(LocalDateTime beforeDate, Long beforeId, Limit limit);
+
+    @EntityGraph("Order.details")
     @Query("SELECT o FROM Order o WHERE o.orderDate BETWEEN :startDate AND :endDate")
     List<Order> findOrdersBetweenDates(LocalDateTime startDate, LocalDateTime endDate);
-    
+
+    @EntityGraph("Order.details")
     @Query("SELECT o FROM Order o WHERE o.user.id = :userId AND o.orderDate BETWEEN :startDate AND :endDate")
     List<Order> findUserOrdersBetweenDates(Long userId, LocalDateTime startDate, LocalDateTime endDate);
+
+    // One row per order item, read through a forward-only cursor; DTO rows never enter the persistence context
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new ecommerce.dto.OrderExportRow(o.id, u.id, u.username, o.status, o.orderDate, " +
+           "o.totalAmount, o.shippingAddress, p.id, p.name, oi.quantity, oi.unitPrice, oi.totalPrice) " +
+           "FROM Order o JOIN o.user u LEFT JOIN o.orderItems oi LEFT JOIN oi.product p " +
+           "ORDER BY o.id, oi.id")
+    Stream<OrderExportRow> streamExportRows();
+
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status AND o.orderDate < :before ORDER BY o.orderDate")
+    List<Long> findIdsByStatusAndOrderDateBefore(OrderStatus status, LocalDateTime before, Limit limit);
+
+    // Status changes that also adjust stock or the sales rollups read the order under a row lock, so two
+    // concurrent requests cannot both act on the same previous status
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(Long id);
+
+    // Locks the orders still in the given status so the caller can update them and know exactly which changed
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o.id FROM Order o WHERE o.id IN :ids AND o.status = :status")
+    List<Long> lockIdsByIdInAndStatus(List<Long> ids, OrderStatus status);
+
+    // Only moves orders still in the expected status, so a concurrent cancellation is never overwritten
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to WHERE o.id IN :ids AND o.status = :from")
+    int updateStatus(List<Long> ids, OrderStatus from, OrderStatus to);
 }
\ No newline at end of file
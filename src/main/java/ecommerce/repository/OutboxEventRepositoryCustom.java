@@ -0,0 +1,9 @@
+package ecommerce.repository;
+
+import ecommerce.entity.OutboxEvent;
+
+import java.util.List;
+
+public interface OutboxEventRepositoryCustom {
+    int[] insertBatch(List<OutboxEvent> events);
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package ecommerce.repository;
+
+import ecommerce.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OutboxEventRepositoryCustomImpl implements OutboxEventRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, created_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Outbox ids are IDENTITY, which Hibernate cannot batch; the rows get ids in list order
+    @Override
+    public int[] insertBatch(List<OutboxEvent> events) {
+        List<Object[]> batchArgs = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            batchArgs.add(new Object[] { event.getAggregateType(), event.getAggregateId(), event.getEventType(),
+                    event.getPayload(), event.getCreatedAt() });
+        }
+        return jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+    }
+}
\ No newline at end of file
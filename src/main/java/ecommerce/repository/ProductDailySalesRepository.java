@@ -0,0 +1,34 @@
+package ecommerce.repository;
+
+import ecommerce.dto.ProductSalesResponse;
+import ecommerce.entity.ProductDailySales;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ProductDailySalesRepository extends JpaRepository<ProductDailySales, Long>, ProductDailySalesRepositoryCustom {
+
+    @Query("SELECT new ecommerce.dto.ProductSalesResponse(s.productId, MAX(s.productName), " +
+           "SUM(s.orderCount), SUM(s.unitsSold), SUM(s.revenue)) " +
+           "FROM ProductDailySales s WHERE s.salesDate BETWEEN :from AND :to " +
+           "GROUP BY s.productId HAVING SUM(s.orderCount) > 0 " +
+           "ORDER BY SUM(s.revenue) DESC, s.productId")
+    List<ProductSalesResponse> findTopProducts(@Param("from") LocalDate from, @Param("to") LocalDate to, Limit limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_product_daily (sales_date, product_id, product_name, order_count, units_sold, revenue) " +
+                   "SELECT CAST(o.order_date AS DATE), p.id, MAX(p.name), COUNT(DISTINCT o.id), " +
+                   "SUM(oi.quantity), SUM(oi.total_price) " +
+                   "FROM orders o JOIN order_items oi ON oi.order_id = o.id JOIN products p ON p.id = oi.product_id " +
+                   "WHERE o.status <> 'CANCELLED' " +
+                   "GROUP BY CAST(o.order_date AS DATE), p.id",
+           nativeQuery = true)
+    int rebuildFromOrders();
+}
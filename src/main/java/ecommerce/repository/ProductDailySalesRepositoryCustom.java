@@ -0,0 +1,9 @@
+package ecommerce.repository;
+
+import ecommerce.entity.ProductDailySales;
+
+import java.util.List;
+
+public interface ProductDailySalesRepositoryCustom {
+    int[] addSalesBatch(List<ProductDailySales> deltas);
+}
\ No newline at end of file
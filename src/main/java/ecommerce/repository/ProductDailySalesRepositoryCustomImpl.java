@@ -0,0 +1,33 @@
+package ecommerce.repository;
+
+import ecommerce.entity.ProductDailySales;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductDailySalesRepositoryCustomImpl implements ProductDailySalesRepositoryCustom {
+
+    private static final String ADD_SALES_SQL =
+            "INSERT INTO sales_product_daily (sales_date, product_id, product_name, order_count, units_sold, revenue) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE product_name = VALUES(product_name), " +
+            "order_count = order_count + VALUES(order_count), " +
+            "units_sold = units_sold + VALUES(units_sold), revenue = revenue + VALUES(revenue)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Adds each delta to its day's row in one batch; callers pass rows in key order so concurrent
+    // checkouts lock them in the same order
+    @Override
+    public int[] addSalesBatch(List<ProductDailySales> deltas) {
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+        for (ProductDailySales delta : deltas) {
+            batchArgs.add(new Object[] { delta.getSalesDate(), delta.getProductId(), delta.getProductName(),
+                    delta.getOrderCount(), delta.getUnitsSold(), delta.getRevenue() });
+        }
+        return jdbcTemplate.batchUpdate(ADD_SALES_SQL, batchArgs);
+    }
+}
\ No newline at end of file
@@ -1,18 +1,43 @@
 package ecommerce.repository;
 
+import ecommerce.dto.ProductStockView;
 import ecommerce.entity.Product;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     List<Product> findByActiveTrue();
     List<Product> findByCategoryIdAndActiveTrue(Long categoryId);
     List<Product> findByNameContainingIgnoreCaseAndActiveTrue(String name);
+    List<ProductStockView> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAllByIdIn(Collection<? extends Long> ids);
+
+    // Keyset pages: seek past the last id seen instead of counting an offset
+    @EntityGraph(attributePaths = "category")
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @EntityGraph(attributePaths = "category")
+    List<Product> findByActiveTrueAndIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @EntityGraph(attributePaths = "category")
+    List<Product> findByCategoryIdAndActiveTrueAndIdGreaterThanOrderByIdAsc(Long categoryId, Long afterId, Limit limit);
+
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT p FROM Product p WHERE p.stockQuantity > 0 AND p.active = true AND p.id > :afterId ORDER BY p.id")
+    List<Product> findAvailableProductsAfter(@Param("afterId") Long afterId, Limit limit);
     
     @Query("SELECT p FROM Product p WHERE p.stockQuantity > 0 AND p.active = true")
     List<Product> findAvailableProducts();
@@ -22,4 +47,23 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
            "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND " +
            "p.active = true")
     List<Product> searchByKeyword(@Param("keyword") String keyword);
+
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :productId")
+    Optional<Integer> findStockQuantityById(@Param("productId") Long productId);
+
+    @Query("SELECT p.stockVersion FROM Product p WHERE p.id = :productId")
+    Optional<Long> findStockVersionById(@Param("productId") Long productId);
+
+    // Guarded decrement: returns 0 instead of overselling when stock is short
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, p.stockVersion = p.stockVersion + 1 " +
+           "WHERE p.id = :productId AND p.active = true AND p.stockQuantity >= :quantity")
+    int decrementStock(@Param("productId") Long productId, @Param("quantity") Integer quantity);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity, p.stockVersion = p.stockVersion + 1 " +
+           "WHERE p.id = :productId")
+    int incrementStock(@Param("productId") Long productId, @Param("quantity") Integer quantity);
 }
\ No newline at end of file
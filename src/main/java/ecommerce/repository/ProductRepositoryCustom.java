@@ -0,0 +1,7 @@
+package ecommerce.repository;
+
+import java.util.SortedMap;
+
+public interface ProductRepositoryCustom {
+    int[] decrementStockBatch(SortedMap<Long, Integer> quantitiesByProductId);
+}
@@ -0,0 +1,29 @@
+package ecommerce.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final String DECREMENT_STOCK_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ?, stock_version = stock_version + 1 " +
+            "WHERE id = ? AND active = true AND stock_quantity >= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Rows are updated in ascending id order so concurrent checkouts always take row locks in the same order
+    @Override
+    public int[] decrementStockBatch(SortedMap<Long, Integer> quantitiesByProductId) {
+        List<Object[]> batchArgs = new ArrayList<>(quantitiesByProductId.size());
+        for (Map.Entry<Long, Integer> entry : quantitiesByProductId.entrySet()) {
+            batchArgs.add(new Object[] { entry.getValue(), entry.getKey(), entry.getValue() });
+        }
+        return jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, batchArgs);
+    }
+}
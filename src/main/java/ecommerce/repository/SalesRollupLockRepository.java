@@ -0,0 +1,23 @@
+package ecommerce.repository;
+
+import ecommerce.entity.SalesRollupLock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SalesRollupLockRepository extends JpaRepository<SalesRollupLock, Integer> {
+
+    // FOR SHARE on MySQL: concurrent checkouts do not block each other, only a rebuild
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT l.id FROM SalesRollupLock l WHERE l.id = :id")
+    Optional<Integer> lockShared(Integer id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l.id FROM SalesRollupLock l WHERE l.id = :id")
+    Optional<Integer> lockExclusive(Integer id);
+}
\ No newline at end of file
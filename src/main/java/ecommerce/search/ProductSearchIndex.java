@@ -0,0 +1,464 @@
+package ecommerce.search;
+
+import ecommerce.entity.Product;
+import ecommerce.event.ProductChangedEvent;
+import ecommerce.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float PREFIX_MATCH_FACTOR = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final Duration FIRST_RETRY_DELAY = Duration.ofSeconds(5);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(5);
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in",
+            "is", "it", "of", "on", "or", "the", "to", "with"
+    );
+
+    // term -> postings sorted by product id; sorted by term so a prefix is a contiguous key range
+    private volatile ConcurrentSkipListMap<String, Postings> postings = new ConcurrentSkipListMap<>();
+
+    // product id -> indexed terms, needed to unlink a product before re-indexing or removing it
+    private volatile ConcurrentHashMap<Long, String[]> documentTerms = new ConcurrentHashMap<>();
+
+    // Products changed while a rebuild is scanning the table; re-applied once the new index is swapped in
+    private Set<Long> changedDuringRebuild;
+
+    private volatile boolean ready;
+
+    private volatile boolean closing;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return documentTerms.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread builder = new Thread(() -> buildInitialIndex(FIRST_RETRY_DELAY), "product-search-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    // Published before the scheduler and the data source are shut down
+    @EventListener(ContextClosedEvent.class)
+    public void onContextClosed() {
+        closing = true;
+    }
+
+    // Searches use the database until the first build succeeds, so a failed build is retried with backoff
+    // until the application shuts down
+    private void buildInitialIndex(Duration retryDelay) {
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            if (closing) {
+                log.debug("Building the product search index stopped by shutdown", ex);
+                return;
+            }
+            log.error("Building the product search index failed, retrying in {}", retryDelay, ex);
+            Duration nextDelay = retryDelay.multipliedBy(2).compareTo(MAX_RETRY_DELAY) < 0
+                    ? retryDelay.multipliedBy(2) : MAX_RETRY_DELAY;
+            try {
+                taskScheduler.schedule(() -> buildInitialIndex(nextDelay), Instant.now().plus(retryDelay));
+            } catch (TaskRejectedException rejected) {
+                // The scheduler shut down after the check above
+                log.debug("Product search index retry not scheduled", rejected);
+            }
+        }
+    }
+
+    // Builds a fresh index off to the side and swaps it in, so searches keep being served while it runs.
+    // If the scan fails the current index stays in place and changes go back to being applied directly.
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            changedDuringRebuild = new HashSet<>();
+        }
+
+        ConcurrentHashMap<Long, String[]> newDocumentTerms = new ConcurrentHashMap<>();
+        ConcurrentSkipListMap<String, Postings> newPostings;
+        try {
+            newPostings = scan(newDocumentTerms);
+        } catch (RuntimeException | Error ex) {
+            synchronized (this) {
+                changedDuringRebuild = null;
+            }
+            throw ex;
+        }
+
+        Set<Long> changed;
+        synchronized (this) {
+            postings = newPostings;
+            documentTerms = newDocumentTerms;
+            changed = changedDuringRebuild;
+            changedDuringRebuild = null;
+        }
+        changed.forEach(this::reindex);
+
+        ready = true;
+        log.info("Product search index built with {} products and {} terms in {} ms",
+                newDocumentTerms.size(), newPostings.size(), System.currentTimeMillis() - start);
+    }
+
+    private ConcurrentSkipListMap<String, Postings> scan(Map<Long, String[]> newDocumentTerms) {
+        Map<String, PostingsBuilder> builders = new HashMap<>();
+
+        Long afterId = 0L;
+        List<Product> batch;
+        do {
+            batch = productRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(afterId, Limit.of(REBUILD_BATCH_SIZE));
+            for (Product product : batch) {
+                Map<String, Float> weights = termWeights(product);
+                String[] terms = new String[weights.size()];
+                int i = 0;
+                for (Map.Entry<String, Float> entry : weights.entrySet()) {
+                    PostingsBuilder builder = builders.computeIfAbsent(entry.getKey(), PostingsBuilder::new);
+                    builder.append(product.getId(), entry.getValue());
+                    terms[i++] = builder.term;
+                }
+                newDocumentTerms.put(product.getId(), terms);
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        ConcurrentSkipListMap<String, Postings> newPostings = new ConcurrentSkipListMap<>();
+        for (PostingsBuilder builder : builders.values()) {
+            newPostings.put(builder.term, builder.build());
+        }
+        return newPostings;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        switch (event.getChangeType()) {
+            case SAVED -> reindex(event.getProductId());
+            case DELETED -> remove(event.getProductId());
+            default -> {
+                // Stock changes do not affect the indexed text
+            }
+        }
+    }
+
+    private void reindex(Long productId) {
+        productRepository.findById(productId)
+                .ifPresentOrElse(this::index, () -> remove(productId));
+    }
+
+    public synchronized void index(Product product) {
+        remove(product.getId());
+        if (!product.isActive()) {
+            return;
+        }
+
+        Map<String, Float> weights = termWeights(product);
+        String[] terms = new String[weights.size()];
+        int i = 0;
+        for (Map.Entry<String, Float> entry : weights.entrySet()) {
+            String term = entry.getKey();
+            Postings existing = postings.get(term);
+            postings.put(term, existing == null
+                    ? Postings.of(product.getId(), entry.getValue())
+                    : existing.with(product.getId(), entry.getValue()));
+            terms[i++] = term;
+        }
+        documentTerms.put(product.getId(), terms);
+    }
+
+    public synchronized void remove(Long productId) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(productId);
+        }
+
+        String[] terms = documentTerms.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            postings.computeIfPresent(term, (key, existing) -> existing.without(productId));
+        }
+    }
+
+    // Every query term must match (exactly or as a prefix); results are ordered by summed term weight
+    public List<Long> search(String query, int limit) {
+        NavigableMap<String, Postings> dictionary = postings;
+
+        List<TermMatch> matches = new ArrayList<>();
+        for (String term : new LinkedHashSet<>(tokenize(query))) {
+            TermMatch match = TermMatch.of(dictionary, term);
+            if (match.isEmpty()) {
+                return Collections.emptyList();
+            }
+            matches.add(match);
+        }
+        if (matches.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // Drive the intersection from the rarest term and probe the others by binary search
+        matches.sort(Comparator.comparingInt(TermMatch::estimatedSize));
+        Map<Long, Float> scores = matches.get(0).collect();
+        for (int i = 1; i < matches.size() && !scores.isEmpty(); i++) {
+            TermMatch match = matches.get(i);
+            scores.entrySet().removeIf(entry -> {
+                float score = match.score(entry.getKey());
+                if (score == 0f) {
+                    return true;
+                }
+                entry.setValue(entry.getValue() + score);
+                return false;
+            });
+        }
+
+        return topResults(scores, limit);
+    }
+
+    private List<Long> topResults(Map<Long, Float> scores, int limit) {
+        Comparator<Map.Entry<Long, Float>> byRelevance = Map.Entry.<Long, Float>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Float>comparingByKey().reversed());
+
+        PriorityQueue<Map.Entry<Long, Float>> top = new PriorityQueue<>(limit + 1, byRelevance);
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<Long> productIds = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            productIds.add(top.poll().getKey());
+        }
+        Collections.reverse(productIds);
+        return productIds;
+    }
+
+    private Map<String, Float> termWeights(Product product) {
+        Map<String, Float> weights = new HashMap<>();
+        for (String term : tokenize(product.getName())) {
+            weights.merge(term, NAME_WEIGHT, Float::sum);
+        }
+        for (String term : tokenize(product.getDescription())) {
+            weights.merge(term, DESCRIPTION_WEIGHT, Float::sum);
+        }
+        return weights;
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<String> terms = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    // Immutable, copy-on-write posting list: two parallel primitive arrays sorted by product id
+    private static final class Postings {
+        private final long[] productIds;
+        private final float[] weights;
+
+        private Postings(long[] productIds, float[] weights) {
+            this.productIds = productIds;
+            this.weights = weights;
+        }
+
+        static Postings of(long productId, float weight) {
+            return new Postings(new long[] { productId }, new float[] { weight });
+        }
+
+        int size() {
+            return productIds.length;
+        }
+
+        float weight(long productId) {
+            int index = Arrays.binarySearch(productIds, productId);
+            return index >= 0 ? weights[index] : 0f;
+        }
+
+        Postings with(long productId, float weight) {
+            int index = Arrays.binarySearch(productIds, productId);
+            if (index >= 0) {
+                float[] newWeights = weights.clone();
+                newWeights[index] = weight;
+                return new Postings(productIds, newWeights);
+            }
+
+            int insertAt = -index - 1;
+            long[] newIds = new long[productIds.length + 1];
+            float[] newWeights = new float[weights.length + 1];
+            System.arraycopy(productIds, 0, newIds, 0, insertAt);
+            System.arraycopy(weights, 0, newWeights, 0, insertAt);
+            newIds[insertAt] = productId;
+            newWeights[insertAt] = weight;
+            System.arraycopy(productIds, insertAt, newIds, insertAt + 1, productIds.length - insertAt);
+            System.arraycopy(weights, insertAt, newWeights, insertAt + 1, weights.length - insertAt);
+            return new Postings(newIds, newWeights);
+        }
+
+        // Returns null when the last product is removed so the term drops out of the dictionary
+        Postings without(long productId) {
+            int index = Arrays.binarySearch(productIds, productId);
+            if (index < 0) {
+                return this;
+            }
+            if (productIds.length == 1) {
+                return null;
+            }
+
+            long[] newIds = new long[productIds.length - 1];
+            float[] newWeights = new float[weights.length - 1];
+            System.arraycopy(productIds, 0, newIds, 0, index);
+            System.arraycopy(weights, 0, newWeights, 0, index);
+            System.arraycopy(productIds, index + 1, newIds, index, productIds.length - index - 1);
+            System.arraycopy(weights, index + 1, newWeights, index, weights.length - index - 1);
+            return new Postings(newIds, newWeights);
+        }
+    }
+
+    // Rebuild reads products in ascending id order, so postings can be appended without sorting
+    private static final class PostingsBuilder {
+        private final String term;
+        private long[] productIds = new long[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        PostingsBuilder(String term) {
+            this.term = term;
+        }
+
+        void append(long productId, float weight) {
+            if (size == productIds.length) {
+                productIds = Arrays.copyOf(productIds, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            productIds[size] = productId;
+            weights[size] = weight;
+            size++;
+        }
+
+        Postings build() {
+            return new Postings(Arrays.copyOf(productIds, size), Arrays.copyOf(weights, size));
+        }
+    }
+
+    // One query term: its exact postings plus, for longer terms, the postings of terms it prefixes
+    private static final class TermMatch {
+        private final List<Postings> postings = new ArrayList<>();
+        private final List<Float> factors = new ArrayList<>();
+        private int estimatedSize;
+
+        static TermMatch of(NavigableMap<String, Postings> dictionary, String term) {
+            TermMatch match = new TermMatch();
+            Postings exact = dictionary.get(term);
+            if (exact != null) {
+                match.add(exact, 1.0f);
+            }
+
+            // A short prefix can expand to thousands of terms; the cap keeps the ones found in the most
+            // products, so the matches dropped are the rarest completions rather than whatever sorts last
+            if (term.length() >= MIN_PREFIX_LENGTH) {
+                PriorityQueue<Postings> widest = new PriorityQueue<>(MAX_PREFIX_EXPANSIONS + 1,
+                        Comparator.comparingInt(Postings::size));
+                for (Postings prefixed : dictionary.subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+                    widest.offer(prefixed);
+                    if (widest.size() > MAX_PREFIX_EXPANSIONS) {
+                        widest.poll();
+                    }
+                }
+                widest.forEach(prefixed -> match.add(prefixed, PREFIX_MATCH_FACTOR));
+            }
+            return match;
+        }
+
+        private void add(Postings list, float factor) {
+            postings.add(list);
+            factors.add(factor);
+            estimatedSize += list.size();
+        }
+
+        boolean isEmpty() {
+            return estimatedSize == 0;
+        }
+
+        int estimatedSize() {
+            return estimatedSize;
+        }
+
+        float score(long productId) {
+            float best = 0f;
+            for (int i = 0; i < postings.size(); i++) {
+                best = Math.max(best, postings.get(i).weight(productId) * factors.get(i));
+            }
+            return best;
+        }
+
+        Map<Long, Float> collect() {
+            Map<Long, Float> scores = new HashMap<>(estimatedSize * 2);
+            for (int i = 0; i < postings.size(); i++) {
+                Postings list = postings.get(i);
+                float factor = factors.get(i);
+                for (int j = 0; j < list.productIds.length; j++) {
+                    scores.merge(list.productIds[j], list.weights[j] * factor, Math::max);
+                }
+            }
+            return scores;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ecommerce.security;
+
+import ecommerce.entity.UserRole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+// The principal carried by a verified token; built from its claims alone
+public class AuthenticatedUser {
+    private final Long userId;
+    private final String username;
+    private final UserRole role;
+    private final Instant expiresAt;
+    private final List<GrantedAuthority> authorities;
+
+
+    public AuthenticatedUser(Long userId, String username, UserRole role, Instant expiresAt) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.expiresAt = expiresAt;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+
+    public Long getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public UserRole getRole() { return role; }
+    public Instant getExpiresAt() { return expiresAt; }
+    public List<GrantedAuthority> getAuthorities() { return authorities; }
+}
@@ -0,0 +1,103 @@
+package ecommerce.security;
+
+import ecommerce.entity.User;
+import ecommerce.entity.UserRole;
+import ecommerce.exception.InvalidTokenException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+@Component
+public class JwtTokenProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtTokenProvider.class);
+
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+
+    // Base64-encoded HMAC key of at least 256 bits
+    @Value("${ecommerce.jwt.secret:}")
+    private String secret;
+
+    @Value("${ecommerce.jwt.expiration:PT24H}")
+    private Duration expiration;
+
+    @Value("${ecommerce.jwt.issuer:multi-vendor-ecommerce}")
+    private String issuer;
+
+    private SecretKey signingKey;
+
+    // JwtParser is immutable and thread-safe, so one instance serves every request
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        if (secret == null || secret.isBlank()) {
+            log.warn("ecommerce.jwt.secret is not set; using a random key, tokens will not survive a restart");
+            signingKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        } else {
+            signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        }
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .requireIssuer(issuer)
+                .build();
+    }
+
+    public String createToken(User user) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setIssuer(issuer)
+                .setSubject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLE_CLAIM, user.getRole().name())
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(expiration)))
+                .signWith(signingKey)
+                .compact();
+    }
+
+    public AuthenticatedUser parseToken(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new InvalidTokenException("Token is missing");
+        }
+
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            return new AuthenticatedUser(
+                    claims.get(USER_ID_CLAIM, Long.class),
+                    claims.getSubject(),
+                    UserRole.valueOf(claims.get(ROLE_CLAIM, String.class)),
+                    claims.getExpiration().toInstant()
+            );
+        } catch (ExpiredJwtException ex) {
+            throw new InvalidTokenException("Token has expired", ex);
+        } catch (JwtException | IllegalArgumentException | NullPointerException ex) {
+            throw new InvalidTokenException("Invalid token", ex);
+        }
+    }
+
+    public boolean isExpired(String token) {
+        try {
+            parseToken(token);
+            return false;
+        } catch (InvalidTokenException ex) {
+            return ex.getCause() instanceof ExpiredJwtException;
+        }
+    }
+}
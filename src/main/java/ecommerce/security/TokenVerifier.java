@@ -0,0 +1,168 @@
+package ecommerce.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import ecommerce.entity.RevokedToken;
+import ecommerce.exception.InvalidTokenException;
+import ecommerce.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.function.Function;
+
+// Remembers tokens whose signature has already been checked, keyed by a SHA-256 digest of the token, until
+// the token expires. A repeat request costs one hash and one lookup instead of a signature check and a
+// JSON parse. Revocations are written to the revoked_tokens table, which every node checks before it
+// caches a token and polls for newer rows, so a token logged out on one node stops working on the others
+// within the sync interval. Revoked tokens are also remembered locally until they would have expired; both
+// caches are bounded, and a revocation pushed out by the bound is found in the table again.
+@Component
+public class TokenVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenVerifier.class);
+
+    // Each sync looks back this much further than the last one, for rows committed late or stamped by a
+    // node whose clock is behind
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    @Value("${ecommerce.jwt.verified-cache.maximum-size:100000}")
+    private long maximumSize;
+
+    @Value("${ecommerce.jwt.revoked-cache.maximum-size:100000}")
+    private long revokedMaximumSize;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private Cache<String, AuthenticatedUser> verified;
+    private Cache<String, Instant> revoked;
+
+    // Rows revoked before this node started need no sync: nothing was cached yet, and misses check the table
+    private volatile Instant syncedUpTo = Instant.now();
+
+    private final ThreadLocal<MessageDigest> sha256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    });
+
+    @PostConstruct
+    public void init() {
+        verified = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(expiringAt(AuthenticatedUser::getExpiresAt))
+                .recordStats()
+                .build();
+        revoked = Caffeine.newBuilder()
+                .maximumSize(revokedMaximumSize)
+                .expireAfter(expiringAt((Instant expiresAt) -> expiresAt))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "verified_tokens");
+        CaffeineCacheMetrics.monitor(meterRegistry, revoked, "revoked_tokens");
+    }
+
+    public AuthenticatedUser verify(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new InvalidTokenException("Token is missing");
+        }
+
+        String digest = digest(token);
+        return verified.get(digest, key -> {
+            if (revoked.getIfPresent(key) != null) {
+                throw new InvalidTokenException("Token has been revoked");
+            }
+            AuthenticatedUser user = jwtTokenProvider.parseToken(token);
+            if (revokedTokenRepository.existsById(key)) {
+                revoked.put(key, user.getExpiresAt());
+                throw new InvalidTokenException("Token has been revoked");
+            }
+            return user;
+        });
+    }
+
+    // Marks the token revoked before dropping it from the cache, so a verification racing with the
+    // revocation either completes first and is dropped, or sees the revocation
+    public void revoke(String token) {
+        AuthenticatedUser user;
+        try {
+            user = verify(token);
+        } catch (InvalidTokenException ex) {
+            return;
+        }
+
+        String digest = digest(token);
+        revoked.put(digest, user.getExpiresAt());
+        verified.invalidate(digest);
+        try {
+            revokedTokenRepository.save(new RevokedToken(digest, user.getExpiresAt(), Instant.now()));
+        } catch (DataIntegrityViolationException ex) {
+            // Revoked concurrently, possibly on another node
+        }
+    }
+
+    // Picks up revocations made on other nodes and drops rows of tokens that have expired
+    @Scheduled(fixedDelayString = "${ecommerce.jwt.revocation-sync:PT5S}")
+    public void syncRevocations() {
+        Instant startedAt = Instant.now();
+        try {
+            for (RevokedToken revokedToken : revokedTokenRepository.findByRevokedAtAfter(syncedUpTo.minus(SYNC_OVERLAP))) {
+                revoked.put(revokedToken.getDigest(), revokedToken.getExpiresAt());
+                verified.invalidate(revokedToken.getDigest());
+            }
+            revokedTokenRepository.deleteExpired(startedAt);
+            syncedUpTo = startedAt;
+        } catch (RuntimeException ex) {
+            log.warn("Could not read revoked tokens; retrying on the next run", ex);
+        }
+    }
+
+    private String digest(String token) {
+        byte[] hash = sha256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    // Entries live exactly as long as the token they describe
+    private static <V> Expiry<String, V> expiringAt(Function<V, Instant> expiresAt) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String digest, V value, long currentTime) {
+                long remaining = Duration.between(Instant.now(), expiresAt.apply(value)).toNanos();
+                return Math.max(remaining, 0);
+            }
+
+            @Override
+            public long expireAfterUpdate(String digest, V value, long currentTime, long currentDuration) {
+                return expireAfterCreate(digest, value, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(String digest, V value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+}
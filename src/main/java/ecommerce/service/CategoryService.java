@@ -1,13 +1,14 @@
 package ecommerce.service;
 
+import ecommerce.dto.CategoryResponse;
 import ecommerce.entity.Category;
 
 import java.util.List;
 
 public interface CategoryService {
-    List<Category> getAllCategories();
-    Category getCategoryById(Long id);
-    Category getCategoryByName(String name);
+    List<CategoryResponse> getAllCategories();
+    CategoryResponse getCategoryById(Long id);
+    CategoryResponse getCategoryByName(String name);
     Category createCategory(Category category);
     Category updateCategory(Long id, Category category);
     void deleteCategory(Long id);
@@ -1,18 +1,24 @@
 package ecommerce.service;
 
+import ecommerce.dto.CursorPageResponse;
 import ecommerce.dto.OrderCreateRequest;
 import ecommerce.dto.OrderResponse;
 import ecommerce.entity.OrderStatus;
 
+import java.io.Writer;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface OrderService {
     OrderResponse createOrder(Long userId, OrderCreateRequest request);
     OrderResponse getOrderById(Long orderId);
-    List<OrderResponse> getOrdersByUserId(Long userId);
-    List<OrderResponse> getAllOrders();
+    CursorPageResponse<OrderResponse> getOrdersByUserId(Long userId, OrderStatus status, String cursor, Integer size);
+    CursorPageResponse<OrderResponse> getAllOrders(String cursor, Integer size);
+    void exportOrdersCsv(Writer writer);
     OrderResponse updateOrderStatus(Long orderId, OrderStatus status);
     void cancelOrder(Long orderId);
-    List<OrderResponse> getOrdersByStatus(OrderStatus status);
+    CursorPageResponse<OrderResponse> getOrdersByStatus(OrderStatus status, String cursor, Integer size);
     boolean canCancelOrder(Long orderId);
+    int confirmOrders(List<Long> orderIds);
+    List<Long> findPendingOrderIdsPlacedBefore(LocalDateTime before, int limit);
 }
\ No newline at end of file
@@ -1,18 +1,24 @@
 package ecommerce.service;
 
+import ecommerce.dto.CursorPageResponse;
 import ecommerce.dto.ProductResponse;
 import ecommerce.entity.Product;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ProductService {
-    List<ProductResponse> getAllProducts();
-    List<ProductResponse> getActiveProducts();
+    CursorPageResponse<ProductResponse> getAllProducts(String cursor, Integer size);
+    CursorPageResponse<ProductResponse> getActiveProducts(String cursor, Integer size);
     ProductResponse getProductById(Long id);
-    List<ProductResponse> getProductsByCategory(Long categoryId);
+    Map<Long, ProductResponse> getProductsByIds(Collection<Long> ids);
+    CursorPageResponse<ProductResponse> getProductsByCategory(Long categoryId, String cursor, Integer size);
     List<ProductResponse> searchProducts(String keyword);
-    List<ProductResponse> getAvailableProducts();
+    CursorPageResponse<ProductResponse> getAvailableProducts(String cursor, Integer size);
     Product findProductEntityById(Long id);
     void updateStock(Long productId, Integer quantity);
+    void reserveStock(Map<Long, Integer> quantitiesByProductId);
+    void restoreStock(Long productId, Integer quantity);
     boolean isProductAvailable(Long productId, Integer requestedQuantity);
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package ecommerce.service;
+
+import ecommerce.dto.CategorySalesResponse;
+import ecommerce.dto.DailySalesResponse;
+import ecommerce.dto.ProductSalesResponse;
+import ecommerce.entity.Order;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesAnalyticsService {
+    void recordOrderPlaced(Order order);
+    void recordOrderCancelled(Order order);
+    List<DailySalesResponse> getDailySales(LocalDate from, LocalDate to);
+    List<ProductSalesResponse> getTopProducts(LocalDate from, LocalDate to, Integer limit);
+    List<CategorySalesResponse> getCategorySales(LocalDate from, LocalDate to);
+    void rebuild();
+}
@@ -18,4 +18,5 @@ public interface UserService {
     boolean existsByEmail(String email);
     User findUserEntityById(Long id);
     User findUserEntityByUsernameOrEmail(String usernameOrEmail);
+    void updatePasswordHash(Long id, String encodedPassword);
 }
\ No newline at end of file
@@ -4,70 +4,87 @@ import ecommerce.dto.LoginRequest;
 import ecommerce.dto.LoginResponse;
 import ecommerce.entity.User;
 import ecommerce.exception.InvalidCredentialsException;
+import ecommerce.exception.InvalidTokenException;
+import ecommerce.exception.TooManyRequestsException;
+import ecommerce.metrics.TimedService;
+import ecommerce.security.JwtTokenProvider;
+import ecommerce.security.PasswordHasher;
+import ecommerce.security.TokenVerifier;
 import ecommerce.service.AuthService;
 import ecommerce.service.UserService;
 import ecommerce.util.UserMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
+@TimedService
 public class AuthServiceImpl implements AuthService {
 
     @Autowired
     private UserService userService;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private TokenVerifier tokenVerifier;
+
     @Override
     public LoginResponse login(LoginRequest request) {
         User user = userService.findUserEntityByUsernameOrEmail(request.getUsernameOrEmail());
         
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
             throw new InvalidCredentialsException("Invalid username/email or password");
         }
 
+        // Move the stored hash to the configured algorithm and cost while the plain password is at hand
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            try {
+                userService.updatePasswordHash(user.getId(), passwordHasher.encode(request.getPassword()));
+            } catch (TooManyRequestsException ex) {
+                // Retried on a later login
+            }
+        }
+
 
-        String token = generateSimpleToken(user);
+        String token = jwtTokenProvider.createToken(user);
         
         return new LoginResponse(token, userMapper.toResponse(user));
     }
 
     @Override
     public void logout(String token) {
-
+        tokenVerifier.revoke(token);
     }
 
     @Override
     public boolean validateToken(String token) {
-
-        return token != null && !token.isEmpty();
+        try {
+            tokenVerifier.verify(token);
+            return true;
+        } catch (InvalidTokenException ex) {
+            return false;
+        }
     }
 
     @Override
     public String getUsernameFromToken(String token) {
-
-        return "user";
+        return tokenVerifier.verify(token).getUsername();
     }
 
     @Override
     public Long getUserIdFromToken(String token) {
-
-        return 1L;
+        return tokenVerifier.verify(token).getUserId();
     }
 
     @Override
     public boolean isTokenExpired(String token) {
-
-        return false;
-    }
-
-    private String generateSimpleToken(User user) {
-
-        return "simple_token_" + user.getId() + "_" + System.currentTimeMillis();
+        return jwtTokenProvider.isExpired(token);
     }
 }
\ No newline at end of file
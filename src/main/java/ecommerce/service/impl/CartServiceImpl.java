@@ -1,38 +1,41 @@
 package ecommerce.service.impl;
 
+import ecommerce.cart.CartLine;
+import ecommerce.cart.CartState;
+import ecommerce.cart.CartStore;
 import ecommerce.dto.AddToCartRequest;
 import ecommerce.dto.CartResponse;
+import ecommerce.dto.ProductResponse;
 import ecommerce.entity.Cart;
-import ecommerce.entity.CartItem;
-import ecommerce.entity.Product;
-import ecommerce.entity.User;
 import ecommerce.exception.CartNotFoundException;
 import ecommerce.exception.InsufficientStockException;
-import ecommerce.repository.CartItemRepository;
+import ecommerce.metrics.TimedService;
 import ecommerce.repository.CartRepository;
 import ecommerce.service.CartService;
 import ecommerce.service.ProductService;
-import ecommerce.service.UserService;
 import ecommerce.util.CartMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
+// Carts live in the CartStore, which decides when they reach the database; product data comes from
+// the product cache, so most cart requests run without a transaction of their own
 @Service
-@Transactional
+@TimedService
+@Transactional(propagation = Propagation.SUPPORTS)
 public class CartServiceImpl implements CartService {
 
     @Autowired
-    private CartRepository cartRepository;
-
-    @Autowired
-    private CartItemRepository cartItemRepository;
+    private CartStore cartStore;
 
     @Autowired
-    private UserService userService;
+    private CartRepository cartRepository;
 
     @Autowired
     private ProductService productService;
@@ -41,108 +44,82 @@ public class CartServiceImpl implements CartService {
     private CartMapper cartMapper;
 
     @Override
-    @Transactional(readOnly = true)
     public CartResponse getCartByUserId(Long userId) {
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseGet(() -> createCartForUserEntity(userId));
-        return cartMapper.toResponse(cart);
+        return toResponse(cartStore.getCart(userId));
     }
 
     @Override
     public CartResponse addToCart(Long userId, AddToCartRequest request) {
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseGet(() -> createCartForUserEntity(userId));
-
-        Product product = productService.findProductEntityById(request.getProductId());
-        
-        if (!productService.isProductAvailable(request.getProductId(), request.getQuantity())) {
-            throw new InsufficientStockException(
-                "Product is not available or insufficient stock. Product: " + product.getName()
-            );
-        }
-
-        Optional<CartItem> existingCartItem = cartItemRepository
-                .findByCartIdAndProductId(cart.getId(), request.getProductId());
-
-        if (existingCartItem.isPresent()) {
-            CartItem cartItem = existingCartItem.get();
-            Integer newQuantity = cartItem.getQuantity() + request.getQuantity();
-            
-            if (!productService.isProductAvailable(request.getProductId(), newQuantity)) {
-                throw new InsufficientStockException(
-                    "Insufficient stock for the requested quantity. Available: " + product.getStockQuantity()
-                );
+        ProductResponse product = productService.getProductById(request.getProductId());
+
+        CartState cart = cartStore.updateCart(userId, state -> {
+            CartLine existingLine = state.getLine(request.getProductId());
+
+            if (existingLine != null) {
+                Integer newQuantity = existingLine.getQuantity() + request.getQuantity();
+
+                if (!hasStock(product, newQuantity)) {
+                    throw new InsufficientStockException(
+                        "Insufficient stock for the requested quantity. Available: " + product.getStockQuantity()
+                    );
+                }
+
+                state.putLine(new CartLine(product.getId(), existingLine.getItemId(), newQuantity,
+                        existingLine.getUnitPrice(), product.getPrice().multiply(BigDecimal.valueOf(newQuantity))));
+            } else {
+                if (!hasStock(product, request.getQuantity())) {
+                    throw new InsufficientStockException(
+                        "Product is not available or insufficient stock. Product: " + product.getName()
+                    );
+                }
+
+                state.putLine(new CartLine(product.getId(), null, request.getQuantity(),
+                        product.getPrice(), product.getPrice().multiply(BigDecimal.valueOf(request.getQuantity()))));
             }
-            
-            cartItem.setQuantity(newQuantity);
-            cartItem.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(newQuantity)));
-            cartItemRepository.save(cartItem);
-        } else {
-            CartItem cartItem = new CartItem();
-            cartItem.setCart(cart);
-            cartItem.setProduct(product);
-            cartItem.setQuantity(request.getQuantity());
-            cartItem.setUnitPrice(product.getPrice());
-            cartItem.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(request.getQuantity())));
-            cartItemRepository.save(cartItem);
-        }
+        });
 
-        calculateCartTotal(cart.getId());
-        cart = cartRepository.findById(cart.getId()).get();
-        return cartMapper.toResponse(cart);
+        return toResponse(cart);
     }
 
     @Override
     public CartResponse updateCartItem(Long userId, Long productId, Integer quantity) {
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseThrow(() -> new CartNotFoundException("Cart not found for user: " + userId));
+        ProductResponse product = quantity > 0 ? productService.getProductById(productId) : null;
 
-        CartItem cartItem = cartItemRepository.findByCartIdAndProductId(cart.getId(), productId)
-                .orElseThrow(() -> new CartNotFoundException("Item not found in cart"));
+        CartState cart = cartStore.updateCart(userId, state -> {
+            CartLine line = state.getLine(productId);
+            if (line == null) {
+                throw new CartNotFoundException("Item not found in cart");
+            }
+
+            if (quantity <= 0) {
+                state.removeLine(productId);
+            } else {
+                if (!hasStock(product, quantity)) {
+                    throw new InsufficientStockException("Insufficient stock for the requested quantity");
+                }
 
-        if (quantity <= 0) {
-            cartItemRepository.delete(cartItem);
-        } else {
-            if (!productService.isProductAvailable(productId, quantity)) {
-                throw new InsufficientStockException("Insufficient stock for the requested quantity");
+                state.putLine(new CartLine(productId, line.getItemId(), quantity,
+                        line.getUnitPrice(), line.getUnitPrice().multiply(BigDecimal.valueOf(quantity))));
             }
-            
-            cartItem.setQuantity(quantity);
-            cartItem.setTotalPrice(cartItem.getUnitPrice().multiply(BigDecimal.valueOf(quantity)));
-            cartItemRepository.save(cartItem);
-        }
+        });
 
-        calculateCartTotal(cart.getId());
-        cart = cartRepository.findById(cart.getId()).get();
-        return cartMapper.toResponse(cart);
+        return toResponse(cart);
     }
 
     @Override
     public CartResponse removeFromCart(Long userId, Long productId) {
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseThrow(() -> new CartNotFoundException("Cart not found for user: " + userId));
-
-        cartItemRepository.deleteByCartIdAndProductId(cart.getId(), productId);
-        calculateCartTotal(cart.getId());
-        
-        cart = cartRepository.findById(cart.getId()).get();
-        return cartMapper.toResponse(cart);
+        CartState cart = cartStore.updateCart(userId, state -> state.removeLine(productId));
+        return toResponse(cart);
     }
 
     @Override
     public void clearCart(Long userId) {
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseThrow(() -> new CartNotFoundException("Cart not found for user: " + userId));
-
-        cartItemRepository.deleteByCartId(cart.getId());
-        cart.setTotalAmount(BigDecimal.ZERO);
-        cartRepository.save(cart);
+        cartStore.clearCart(userId);
     }
 
     @Override
     public CartResponse createCartForUser(Long userId) {
-        Cart cart = createCartForUserEntity(userId);
-        return cartMapper.toResponse(cart);
+        return toResponse(cartStore.getCart(userId));
     }
 
     @Override
@@ -150,19 +127,20 @@ public class CartServiceImpl implements CartService {
         Cart cart = cartRepository.findById(cartId)
                 .orElseThrow(() -> new CartNotFoundException("Cart not found with id: " + cartId));
 
-        BigDecimal total = cart.getCartItems().stream()
-                .map(CartItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        cartStore.updateCart(cart.getUser().getId(), CartState::recalculateTotal);
+    }
 
-        cart.setTotalAmount(total);
-        cartRepository.save(cart);
+    private CartResponse toResponse(CartState cart) {
+        List<Long> productIds = new ArrayList<>(cart.getLines().size());
+        for (CartLine line : cart.getLines()) {
+            productIds.add(line.getProductId());
+        }
+        Map<Long, ProductResponse> products = productIds.isEmpty()
+                ? Map.of() : productService.getProductsByIds(productIds);
+        return cartMapper.toResponse(cart, products);
     }
 
-    private Cart createCartForUserEntity(Long userId) {
-        User user = userService.findUserEntityById(userId);
-        Cart cart = new Cart();
-        cart.setUser(user);
-        cart.setTotalAmount(BigDecimal.ZERO);
-        return cartRepository.save(cart);
+    private boolean hasStock(ProductResponse product, Integer quantity) {
+        return product.isActive() && product.getStockQuantity() >= quantity;
     }
-}
\ No newline at end of file
+}
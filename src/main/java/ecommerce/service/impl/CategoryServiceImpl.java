@@ -1,5 +1,7 @@
 package ecommerce.service.impl;
 
+import ecommerce.cache.CategoryCache;
+import ecommerce.dto.CategoryResponse;
 import ecommerce.entity.Category;
 import ecommerce.exception.CategoryNotFoundException;
 import ecommerce.exception.CategoryAlreadyExistsException;
@@ -7,6 +9,7 @@ import ecommerce.repository.CategoryRepository;
 import ecommerce.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -18,24 +21,34 @@ public class CategoryServiceImpl implements CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private CategoryCache categoryCache;
+
+    // Reads are served from the in-memory snapshot without opening a transaction or touching the database
     @Override
-    @Transactional(readOnly = true)
-    public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<CategoryResponse> getAllCategories() {
+        return categoryCache.getAll();
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public Category getCategoryById(Long id) {
-        return categoryRepository.findById(id)
-                .orElseThrow(() -> new CategoryNotFoundException("Category not found with id: " + id));
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CategoryResponse getCategoryById(Long id) {
+        CategoryResponse category = categoryCache.getById(id);
+        if (category == null) {
+            throw new CategoryNotFoundException("Category not found with id: " + id);
+        }
+        return category;
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public Category getCategoryByName(String name) {
-        return categoryRepository.findByName(name)
-                .orElseThrow(() -> new CategoryNotFoundException("Category not found with name: " + name));
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CategoryResponse getCategoryByName(String name) {
+        CategoryResponse category = categoryCache.getByName(name);
+        if (category == null) {
+            throw new CategoryNotFoundException("Category not found with name: " + name);
+        }
+        return category;
     }
 
     @Override
@@ -48,7 +61,7 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public Category updateCategory(Long id, Category category) {
-        Category existingCategory = getCategoryById(id);
+        Category existingCategory = findCategoryEntityById(id);
         
         if (!existingCategory.getName().equals(category.getName()) && 
             categoryRepository.existsByName(category.getName())) {
@@ -63,13 +76,18 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public void deleteCategory(Long id) {
-        Category category = getCategoryById(id);
+        Category category = findCategoryEntityById(id);
         categoryRepository.delete(category);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean existsByName(String name) {
-        return categoryRepository.existsByName(name);
+        return categoryCache.getByName(name) != null;
+    }
+
+    private Category findCategoryEntityById(Long id) {
+        return categoryRepository.findById(id)
+                .orElseThrow(() -> new CategoryNotFoundException("Category not found with id: " + id));
     }
 }
\ No newline at end of file
@@ -1,36 +1,71 @@
 package ecommerce.service.impl;
 
+import ecommerce.cart.CartStore;
+import ecommerce.dto.CursorPageResponse;
 import ecommerce.dto.OrderCreateRequest;
+import ecommerce.dto.OrderExportRow;
 import ecommerce.dto.OrderResponse;
 import ecommerce.entity.*;
+import ecommerce.event.OrderPlacedEvent;
 import ecommerce.exception.CartNotFoundException;
-import ecommerce.exception.InsufficientStockException;
+import ecommerce.exception.InvalidCursorException;
 import ecommerce.exception.OrderNotFoundException;
+import ecommerce.metrics.TimedService;
+import ecommerce.outbox.OutboxEvents;
 import ecommerce.repository.CartRepository;
 import ecommerce.repository.OrderRepository;
-import ecommerce.service.CartService;
 import ecommerce.service.OrderService;
 import ecommerce.service.ProductService;
+import ecommerce.service.SalesAnalyticsService;
 import ecommerce.service.UserService;
+import ecommerce.util.CursorCodec;
 import ecommerce.util.OrderMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@TimedService
 @Transactional
 public class OrderServiceImpl implements OrderService {
 
+    private static final String AGGREGATE_TYPE = "Order";
+    private static final String ORDER_CREATED = "ORDER_CREATED";
+    private static final String ORDER_STATUS_CHANGED = "ORDER_STATUS_CHANGED";
+    private static final String ORDER_CANCELLED = "ORDER_CANCELLED";
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    // Later than any stored order date, and still within the range of a MySQL DATETIME
+    private static final LocalDateTime FIRST_PAGE_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     @Autowired
     private OrderRepository orderRepository;
 
     @Autowired
     private CartRepository cartRepository;
 
+    @Autowired
+    private CartStore cartStore;
+
     @Autowired
     private UserService userService;
 
@@ -38,13 +73,25 @@ public class OrderServiceImpl implements OrderService {
     private ProductService productService;
 
     @Autowired
-    private CartService cartService;
+    private SalesAnalyticsService salesAnalyticsService;
 
     @Autowired
     private OrderMapper orderMapper;
 
+    @Autowired
+    private CursorCodec cursorCodec;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OutboxEvents outboxEvents;
+
     @Override
     public OrderResponse createOrder(Long userId, OrderCreateRequest request) {
+        // Write any buffered cart changes into this transaction, or lock the cart, before anything else is
+        // read, so the cart read below is not an older snapshot
+        long cartVersion = cartStore.flush(userId);
         User user = userService.findUserEntityById(userId);
         Cart cart = cartRepository.findByUserId(userId)
                 .orElseThrow(() -> new CartNotFoundException("Cart not found for user: " + userId));
@@ -53,15 +100,6 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalArgumentException("Cart is empty. Cannot create order.");
         }
 
-        // Validate stock availability for all items
-        for (CartItem cartItem : cart.getCartItems()) {
-            if (!productService.isProductAvailable(cartItem.getProduct().getId(), cartItem.getQuantity())) {
-                throw new InsufficientStockException(
-                    "Insufficient stock for product: " + cartItem.getProduct().getName()
-                );
-            }
-        }
-
         // Create order
         Order order = new Order();
         order.setUser(user);
@@ -71,6 +109,7 @@ public class OrderServiceImpl implements OrderService {
 
         // Create order items
         List<OrderItem> orderItems = new ArrayList<>();
+        Map<Long, Integer> quantitiesByProductId = new HashMap<>();
         for (CartItem cartItem : cart.getCartItems()) {
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
@@ -80,15 +119,22 @@ public class OrderServiceImpl implements OrderService {
             orderItem.setTotalPrice(cartItem.getTotalPrice());
             orderItems.add(orderItem);
 
-            // Update product stock
-            productService.updateStock(cartItem.getProduct().getId(), cartItem.getQuantity());
+            quantitiesByProductId.merge(cartItem.getProduct().getId(), cartItem.getQuantity(), Integer::sum);
         }
 
+        // Reserve stock for the whole cart in one batch; fails with every short product listed
+        productService.reserveStock(quantitiesByProductId);
+
         order.setOrderItems(orderItems);
         Order savedOrder = orderRepository.save(order);
+        salesAnalyticsService.recordOrderPlaced(savedOrder);
+        recordOrderCreated(savedOrder);
 
-        // Clear cart after successful order creation
-        cartService.clearCart(userId);
+        // Clear what was ordered; lines added since the flush stay in the cart
+        cartStore.clearCart(userId, cartVersion);
+
+        // Confirmation happens on the fulfillment queue once this transaction commits
+        eventPublisher.publishEvent(new OrderPlacedEvent(savedOrder.getId()));
 
         return orderMapper.toResponse(savedOrder);
     }
@@ -103,55 +149,91 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<OrderResponse> getOrdersByUserId(Long userId) {
-        return orderRepository.findByUserIdOrderByOrderDateDesc(userId).stream()
-                .map(orderMapper::toResponse)
-                .collect(Collectors.toList());
+    public CursorPageResponse<OrderResponse> getOrdersByUserId(Long userId, OrderStatus status, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Keyset before = resolveBefore(cursor);
+        List<Long> ids = status == null
+                ? orderRepository.findIdsByUserIdBefore(userId, before.orderDate, before.id, Limit.of(pageSize + 1))
+                : orderRepository.findIdsByUserIdAndStatusBefore(userId, status, before.orderDate, before.id,
+                        Limit.of(pageSize + 1));
+        return toPage(ids, pageSize);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<OrderResponse> getAllOrders() {
-        return orderRepository.findAll().stream()
-                .map(orderMapper::toResponse)
-                .collect(Collectors.toList());
+    public CursorPageResponse<OrderResponse> getAllOrders(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Keyset before = resolveBefore(cursor);
+        return toPage(orderRepository.findIdsBefore(before.orderDate, before.id, Limit.of(pageSize + 1)), pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOrdersCsv(Writer writer) {
+        try (Stream<OrderExportRow> rows = orderRepository.streamExportRows()) {
+            writer.write(OrderMapper.CSV_HEADER);
+            writer.write('\n');
+
+            Iterator<OrderExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(orderMapper.toCsvRow(iterator.next()));
+                writer.write('\n');
+            }
+            writer.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to write order export", ex);
+        }
     }
 
     @Override
     public OrderResponse updateOrderStatus(Long orderId, OrderStatus status) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + orderId));
 
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(status);
         Order updatedOrder = orderRepository.save(order);
+
+        // Keep the sales rollups in step when an order moves into or out of CANCELLED
+        if (previousStatus != OrderStatus.CANCELLED && status == OrderStatus.CANCELLED) {
+            salesAnalyticsService.recordOrderCancelled(updatedOrder);
+        } else if (previousStatus == OrderStatus.CANCELLED && status != OrderStatus.CANCELLED) {
+            salesAnalyticsService.recordOrderPlaced(updatedOrder);
+        }
+        if (previousStatus != status) {
+            recordStatusChange(ORDER_STATUS_CHANGED, orderId, previousStatus, status);
+        }
         return orderMapper.toResponse(updatedOrder);
     }
 
     @Override
     public void cancelOrder(Long orderId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + orderId));
 
-        if (!canCancelOrder(orderId)) {
+        if (!isCancellable(order.getStatus())) {
             throw new IllegalStateException("Order cannot be cancelled. Current status: " + order.getStatus());
         }
 
         // Restore product stock
         for (OrderItem orderItem : order.getOrderItems()) {
-            Product product = orderItem.getProduct();
-            product.setStockQuantity(product.getStockQuantity() + orderItem.getQuantity());
+            productService.restoreStock(orderItem.getProduct().getId(), orderItem.getQuantity());
         }
 
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(OrderStatus.CANCELLED);
         orderRepository.save(order);
+        salesAnalyticsService.recordOrderCancelled(order);
+        recordStatusChange(ORDER_CANCELLED, orderId, previousStatus, OrderStatus.CANCELLED);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<OrderResponse> getOrdersByStatus(OrderStatus status) {
-        return orderRepository.findByStatus(status).stream()
-                .map(orderMapper::toResponse)
-                .collect(Collectors.toList());
+    public CursorPageResponse<OrderResponse> getOrdersByStatus(OrderStatus status, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Keyset before = resolveBefore(cursor);
+        return toPage(orderRepository.findIdsByStatusBefore(status, before.orderDate, before.id,
+                Limit.of(pageSize + 1)), pageSize);
     }
 
     @Override
@@ -160,6 +242,113 @@ public class OrderServiceImpl implements OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + orderId));
 
-        return order.getStatus() == OrderStatus.PENDING || order.getStatus() == OrderStatus.CONFIRMED;
+        return isCancellable(order.getStatus());
+    }
+
+    @Override
+    public int confirmOrders(List<Long> orderIds) {
+        List<Long> pendingIds = orderRepository.lockIdsByIdInAndStatus(orderIds, OrderStatus.PENDING);
+        if (pendingIds.isEmpty()) {
+            return 0;
+        }
+
+        int confirmed = orderRepository.updateStatus(pendingIds, OrderStatus.PENDING, OrderStatus.CONFIRMED);
+        for (Long orderId : pendingIds) {
+            recordStatusChange(ORDER_STATUS_CHANGED, orderId, OrderStatus.PENDING, OrderStatus.CONFIRMED);
+        }
+        return confirmed;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findPendingOrderIdsPlacedBefore(LocalDateTime before, int limit) {
+        return orderRepository.findIdsByStatusAndOrderDateBefore(OrderStatus.PENDING, before, Limit.of(limit));
+    }
+
+    private boolean isCancellable(OrderStatus status) {
+        return status == OrderStatus.PENDING || status == OrderStatus.CONFIRMED;
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private Keyset resolveBefore(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return new Keyset(FIRST_PAGE_DATE, Long.MAX_VALUE);
+        }
+
+        String[] keys = cursorCodec.decode(cursor, 2);
+        try {
+            return new Keyset(LocalDateTime.parse(keys[0]), Long.valueOf(keys[1]));
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor, ex);
+        }
+    }
+
+    // Pages are read in two steps: the keyset query picks one extra id to tell whether another page
+    // exists, then the orders for the page are loaded with their items, since a row limit cannot be
+    // applied to a query that also fetches a collection
+    private CursorPageResponse<OrderResponse> toPage(List<Long> ids, int pageSize) {
+        boolean hasMore = ids.size() > pageSize;
+        List<Long> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+        if (pageIds.isEmpty()) {
+            return new CursorPageResponse<>(new ArrayList<>(), null, 0);
+        }
+
+        Map<Long, Order> ordersById = orderRepository.findAllByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        List<Order> page = pageIds.stream()
+                .map(ordersById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        List<OrderResponse> items = page.stream()
+                .map(orderMapper::toResponse)
+                .collect(Collectors.toList());
+        Order last = page.get(page.size() - 1);
+        String nextCursor = hasMore ? cursorCodec.encode(last.getOrderDate(), last.getId()) : null;
+
+        return new CursorPageResponse<>(items, nextCursor, items.size());
+    }
+
+    private void recordOrderCreated(Order order) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (OrderItem orderItem : order.getOrderItems()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("productId", orderItem.getProduct().getId());
+            item.put("quantity", orderItem.getQuantity());
+            item.put("unitPrice", orderItem.getUnitPrice());
+            items.add(item);
+        }
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", order.getId());
+        payload.put("userId", order.getUser().getId());
+        payload.put("status", order.getStatus());
+        payload.put("totalAmount", order.getTotalAmount());
+        payload.put("items", items);
+        outboxEvents.record(AGGREGATE_TYPE, order.getId(), ORDER_CREATED, payload);
+    }
+
+    private void recordStatusChange(String eventType, Long orderId, OrderStatus previousStatus, OrderStatus status) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", orderId);
+        payload.put("previousStatus", previousStatus);
+        payload.put("status", status);
+        outboxEvents.record(AGGREGATE_TYPE, orderId, eventType, payload);
+    }
+
+    private static class Keyset {
+        private final LocalDateTime orderDate;
+        private final Long id;
+
+        private Keyset(LocalDateTime orderDate, Long id) {
+            this.orderDate = orderDate;
+            this.id = id;
+        }
     }
 }
\ No newline at end of file
@@ -1,74 +1,143 @@
 package ecommerce.service.impl;
 
+import ecommerce.cache.ProductCache;
+import ecommerce.dto.CursorPageResponse;
 import ecommerce.dto.ProductResponse;
+import ecommerce.dto.ProductStockView;
 import ecommerce.entity.Product;
+import ecommerce.event.ProductChangedEvent.ChangeType;
+import ecommerce.event.ProductChangedEvent;
 import ecommerce.exception.InsufficientStockException;
 import ecommerce.exception.ProductNotFoundException;
+import ecommerce.metrics.TimedService;
+import ecommerce.outbox.OutboxEvents;
 import ecommerce.repository.ProductRepository;
+import ecommerce.search.ProductSearchIndex;
 import ecommerce.service.ProductService;
+import ecommerce.util.CursorCodec;
 import ecommerce.util.ProductMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@TimedService
 @Transactional
 public class ProductServiceImpl implements ProductService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     @Autowired
     private ProductRepository productRepository;
 
     @Autowired
     private ProductMapper productMapper;
 
+    @Autowired
+    private CursorCodec cursorCodec;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OutboxEvents outboxEvents;
+
     @Override
     @Transactional(readOnly = true)
-    public List<ProductResponse> getAllProducts() {
-        return productRepository.findAll().stream()
-                .map(productMapper::toResponse)
-                .collect(Collectors.toList());
+    public CursorPageResponse<ProductResponse> getAllProducts(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        return toPage(productRepository.findByIdGreaterThanOrderByIdAsc(
+                resolveAfterId(cursor), Limit.of(pageSize + 1)), pageSize);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductResponse> getActiveProducts() {
-        return productRepository.findByActiveTrue().stream()
-                .map(productMapper::toResponse)
-                .collect(Collectors.toList());
+    public CursorPageResponse<ProductResponse> getActiveProducts(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        return toPage(productRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(
+                resolveAfterId(cursor), Limit.of(pageSize + 1)), pageSize);
     }
 
     @Override
     @Transactional(readOnly = true)
     public ProductResponse getProductById(Long id) {
-        Product product = findProductEntityById(id);
-        return productMapper.toResponse(product);
+        return productCache.get(id, productId -> productMapper.toResponse(findProductEntityById(productId)));
     }
 
+    // Cache misses are loaded together in one query instead of one findById per product
     @Override
     @Transactional(readOnly = true)
-    public List<ProductResponse> getProductsByCategory(Long categoryId) {
-        return productRepository.findByCategoryIdAndActiveTrue(categoryId).stream()
-                .map(productMapper::toResponse)
-                .collect(Collectors.toList());
+    public Map<Long, ProductResponse> getProductsByIds(Collection<Long> ids) {
+        Map<Long, ProductResponse> products = productCache.getAll(ids, missingIds ->
+                productRepository.findAllByIdIn(missingIds).stream()
+                        .collect(Collectors.toMap(Product::getId, productMapper::toResponse)));
+        if (!products.keySet().containsAll(ids)) {
+            List<Long> missing = ids.stream().filter(id -> !products.containsKey(id)).collect(Collectors.toList());
+            throw new ProductNotFoundException("Product not found with ids: " + missing);
+        }
+        return products;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProductResponse> getProductsByCategory(Long categoryId, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        return toPage(productRepository.findByCategoryIdAndActiveTrueAndIdGreaterThanOrderByIdAsc(
+                categoryId, resolveAfterId(cursor), Limit.of(pageSize + 1)), pageSize);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ProductResponse> searchProducts(String keyword) {
-        return productRepository.searchByKeyword(keyword).stream()
+        // Fall back to the LIKE query while the in-memory index is still being built
+        if (!productSearchIndex.isReady()) {
+            return productRepository.searchByKeyword(keyword).stream()
+                    .map(productMapper::toResponse)
+                    .collect(Collectors.toList());
+        }
+
+        List<Long> productIds = productSearchIndex.search(keyword, MAX_SEARCH_RESULTS);
+        if (productIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Product> productsById = productRepository.findAllByIdIn(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        return productIds.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
                 .map(productMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductResponse> getAvailableProducts() {
-        return productRepository.findAvailableProducts().stream()
-                .map(productMapper::toResponse)
-                .collect(Collectors.toList());
+    public CursorPageResponse<ProductResponse> getAvailableProducts(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        return toPage(productRepository.findAvailableProductsAfter(
+                resolveAfterId(cursor), Limit.of(pageSize + 1)), pageSize);
     }
 
     @Override
@@ -80,24 +149,108 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public void updateStock(Long productId, Integer quantity) {
-        Product product = findProductEntityById(productId);
-        
-        if (product.getStockQuantity() < quantity) {
-            throw new InsufficientStockException(
-                "Insufficient stock for product: " + product.getName() + 
-                ". Available: " + product.getStockQuantity() + 
-                ", Requested: " + quantity
-            );
+        if (productRepository.decrementStock(productId, quantity) == 1) {
+            eventPublisher.publishEvent(new ProductChangedEvent(productId, ChangeType.STOCK_UPDATED));
+            recordStockChange(productId, -quantity);
+            return;
+        }
+
+        // Nothing was updated: work out why without loading the entity
+        Integer available = productRepository.findStockQuantityById(productId)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + productId));
+
+        throw new InsufficientStockException(
+            "Insufficient stock for product id: " + productId +
+            ". Available: " + available +
+            ", Requested: " + quantity
+        );
+    }
+
+    @Override
+    public void reserveStock(Map<Long, Integer> quantitiesByProductId) {
+        SortedMap<Long, Integer> ordered = new TreeMap<>(quantitiesByProductId);
+        int[] updated = productRepository.decrementStockBatch(ordered);
+
+        List<Long> shortProductIds = new ArrayList<>();
+        int i = 0;
+        for (Long productId : ordered.keySet()) {
+            if (updated[i++] != 1) {
+                shortProductIds.add(productId);
+            }
+        }
+
+        if (shortProductIds.isEmpty()) {
+            Map<Long, Map<String, Object>> payloads = new LinkedHashMap<>();
+            for (Map.Entry<Long, Integer> entry : ordered.entrySet()) {
+                eventPublisher.publishEvent(new ProductChangedEvent(entry.getKey(), ChangeType.STOCK_UPDATED));
+                payloads.put(entry.getKey(), stockChangePayload(entry.getKey(), -entry.getValue()));
+            }
+            outboxEvents.recordAll("Product", "STOCK_CHANGED", payloads);
+            return;
+        }
+
+        // Report every short SKU at once; the caller's transaction rolls back the successful decrements
+        List<ProductStockView> stockLevels = productRepository.findByIdIn(shortProductIds);
+        if (stockLevels.size() < shortProductIds.size()) {
+            throw new ProductNotFoundException("Product not found with ids: " + shortProductIds);
+        }
+
+        String details = stockLevels.stream()
+                .map(stock -> stock.getName() + " (id: " + stock.getId() +
+                        ", available: " + (stock.isActive() ? stock.getStockQuantity() : 0) +
+                        ", requested: " + ordered.get(stock.getId()) + ")")
+                .collect(Collectors.joining(", "));
+        throw new InsufficientStockException("Insufficient stock for products: " + details);
+    }
+
+    @Override
+    public void restoreStock(Long productId, Integer quantity) {
+        if (productRepository.incrementStock(productId, quantity) == 0) {
+            throw new ProductNotFoundException("Product not found with id: " + productId);
         }
-        
-        product.setStockQuantity(product.getStockQuantity() - quantity);
-        productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(productId, ChangeType.STOCK_UPDATED));
+        recordStockChange(productId, quantity);
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean isProductAvailable(Long productId, Integer requestedQuantity) {
-        Product product = findProductEntityById(productId);
+        ProductResponse product = getProductById(productId);
         return product.isActive() && product.getStockQuantity() >= requestedQuantity;
     }
+
+    private void recordStockChange(Long productId, int delta) {
+        outboxEvents.record("Product", productId, "STOCK_CHANGED", stockChangePayload(productId, delta));
+    }
+
+    private static Map<String, Object> stockChangePayload(Long productId, int delta) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("productId", productId);
+        payload.put("delta", delta);
+        return payload;
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private Long resolveAfterId(String cursor) {
+        return cursor == null || cursor.isEmpty() ? 0L : cursorCodec.decodeId(cursor);
+    }
+
+    // One extra row is fetched to tell whether another page exists
+    private CursorPageResponse<ProductResponse> toPage(List<Product> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<Product> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        List<ProductResponse> items = page.stream()
+                .map(productMapper::toResponse)
+                .collect(Collectors.toList());
+        String nextCursor = hasMore ? cursorCodec.encode(page.get(page.size() - 1).getId()) : null;
+
+        return new CursorPageResponse<>(items, nextCursor, items.size());
+    }
 }
\ No newline at end of file
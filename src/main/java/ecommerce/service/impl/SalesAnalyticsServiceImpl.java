@@ -0,0 +1,221 @@
+package ecommerce.service.impl;
+
+import ecommerce.dto.CategorySalesResponse;
+import ecommerce.dto.DailySalesResponse;
+import ecommerce.dto.ProductSalesResponse;
+import ecommerce.entity.Category;
+import ecommerce.entity.CategoryDailySales;
+import ecommerce.entity.DailySales;
+import ecommerce.entity.Order;
+import ecommerce.entity.OrderItem;
+import ecommerce.entity.Product;
+import ecommerce.entity.ProductDailySales;
+import ecommerce.entity.SalesRollupLock;
+import ecommerce.repository.CategoryDailySalesRepository;
+import ecommerce.repository.DailySalesRepository;
+import ecommerce.repository.ProductDailySalesRepository;
+import ecommerce.repository.SalesRollupLockRepository;
+import ecommerce.service.SalesAnalyticsService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class SalesAnalyticsServiceImpl implements SalesAnalyticsService {
+
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final int DEFAULT_TOP_PRODUCTS = 10;
+    private static final int MAX_TOP_PRODUCTS = 100;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @Autowired
+    private ProductDailySalesRepository productDailySalesRepository;
+
+    @Autowired
+    private CategoryDailySalesRepository categoryDailySalesRepository;
+
+    @Autowired
+    private SalesRollupLockRepository salesRollupLockRepository;
+
+    // The lock row must exist for the rollup locks to mean anything, so it is created before the web server
+    // takes its first checkout; another node may have created it first
+    @PostConstruct
+    public void ensureRollupLock() {
+        if (salesRollupLockRepository.existsById(SalesRollupLock.ID)) {
+            return;
+        }
+        try {
+            salesRollupLockRepository.saveAndFlush(new SalesRollupLock(SalesRollupLock.ID));
+        } catch (DataIntegrityViolationException ex) {
+            // Created concurrently
+        }
+    }
+
+    @Override
+    public void recordOrderPlaced(Order order) {
+        applyOrder(order, 1);
+    }
+
+    @Override
+    public void recordOrderCancelled(Order order) {
+        applyOrder(order, -1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DailySalesResponse> getDailySales(LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+
+        return dailySalesRepository.findBySalesDateBetweenOrderBySalesDateAsc(start, end).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductSalesResponse> getTopProducts(LocalDate from, LocalDate to, Integer limit) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        int resolvedLimit = limit == null || limit < 1 ? DEFAULT_TOP_PRODUCTS : Math.min(limit, MAX_TOP_PRODUCTS);
+
+        return productDailySalesRepository.findTopProducts(start, end, Limit.of(resolvedLimit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CategorySalesResponse> getCategorySales(LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+
+        return categoryDailySalesRepository.findCategorySales(start, end);
+    }
+
+    // The exclusive lock waits for every in-flight rollup update to commit and holds off new ones. Under
+    // READ COMMITTED each INSERT ... SELECT reads orders from a snapshot taken after that, without locking
+    // them, so an order whose checkout is still waiting is left to its own update once the rebuild commits.
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public void rebuild() {
+        lock(salesRollupLockRepository.lockExclusive(SalesRollupLock.ID));
+
+        dailySalesRepository.deleteAllInBatch();
+        productDailySalesRepository.deleteAllInBatch();
+        categoryDailySalesRepository.deleteAllInBatch();
+
+        dailySalesRepository.rebuildFromOrders();
+        productDailySalesRepository.rebuildFromOrders();
+        categoryDailySalesRepository.rebuildFromOrders();
+    }
+
+    // Without the row nothing is locked and a rollup update could land inside a rebuild
+    private void lock(Optional<Integer> lockRow) {
+        if (lockRow.isEmpty()) {
+            throw new IllegalStateException("Sales rollup lock row " + SalesRollupLock.ID + " is missing");
+        }
+    }
+
+    // Adds (sign = 1) or removes (sign = -1) one order's contribution to the rollups of the day it was placed.
+    // Rows are upserted in ascending key order so concurrent checkouts lock them in the same order, and each
+    // rollup table takes one batch however many products the order has.
+    private void applyOrder(Order order, int sign) {
+        lock(salesRollupLockRepository.lockShared(SalesRollupLock.ID));
+
+        LocalDate salesDate = order.getOrderDate() != null ? order.getOrderDate().toLocalDate() : LocalDate.now();
+        Map<Long, SalesDelta> productDeltas = new TreeMap<>();
+        Map<Long, SalesDelta> categoryDeltas = new TreeMap<>();
+        long unitsSold = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+
+        for (OrderItem orderItem : order.getOrderItems()) {
+            Product product = orderItem.getProduct();
+            long quantity = orderItem.getQuantity();
+            BigDecimal itemTotal = orderItem.getTotalPrice();
+
+            unitsSold += quantity;
+            revenue = revenue.add(itemTotal);
+            productDeltas.computeIfAbsent(product.getId(), id -> new SalesDelta(product.getName()))
+                    .add(quantity, itemTotal);
+
+            Category category = product.getCategory();
+            if (category != null) {
+                categoryDeltas.computeIfAbsent(category.getId(), id -> new SalesDelta(category.getName()))
+                        .add(quantity, itemTotal);
+            }
+        }
+
+        BigDecimal signum = BigDecimal.valueOf(sign);
+        dailySalesRepository.addSales(salesDate, sign, sign * unitsSold, revenue.multiply(signum));
+
+        List<ProductDailySales> productRows = new ArrayList<>(productDeltas.size());
+        for (Map.Entry<Long, SalesDelta> entry : productDeltas.entrySet()) {
+            SalesDelta delta = entry.getValue();
+            ProductDailySales row = new ProductDailySales();
+            row.setSalesDate(salesDate);
+            row.setProductId(entry.getKey());
+            row.setProductName(delta.name);
+            row.setOrderCount((long) sign);
+            row.setUnitsSold(sign * delta.unitsSold);
+            row.setRevenue(delta.revenue.multiply(signum));
+            productRows.add(row);
+        }
+        productDailySalesRepository.addSalesBatch(productRows);
+
+        if (categoryDeltas.isEmpty()) {
+            return;
+        }
+        List<CategoryDailySales> categoryRows = new ArrayList<>(categoryDeltas.size());
+        for (Map.Entry<Long, SalesDelta> entry : categoryDeltas.entrySet()) {
+            SalesDelta delta = entry.getValue();
+            CategoryDailySales row = new CategoryDailySales();
+            row.setSalesDate(salesDate);
+            row.setCategoryId(entry.getKey());
+            row.setCategoryName(delta.name);
+            row.setOrderCount((long) sign);
+            row.setUnitsSold(sign * delta.unitsSold);
+            row.setRevenue(delta.revenue.multiply(signum));
+            categoryRows.add(row);
+        }
+        categoryDailySalesRepository.addSalesBatch(categoryRows);
+    }
+
+    private DailySalesResponse toResponse(DailySales dailySales) {
+        DailySalesResponse response = new DailySalesResponse();
+        response.setDate(dailySales.getSalesDate());
+        response.setOrderCount(dailySales.getOrderCount());
+        response.setUnitsSold(dailySales.getUnitsSold());
+        response.setRevenue(dailySales.getRevenue());
+        return response;
+    }
+
+    private static class SalesDelta {
+        private final String name;
+        private long unitsSold;
+        private BigDecimal revenue = BigDecimal.ZERO;
+
+        private SalesDelta(String name) {
+            this.name = name;
+        }
+
+        private void add(long quantity, BigDecimal amount) {
+            unitsSold += quantity;
+            revenue = revenue.add(amount);
+        }
+    }
+}
@@ -6,10 +6,10 @@ import ecommerce.entity.User;
 import ecommerce.exception.UserAlreadyExistsException;
 import ecommerce.exception.UserNotFoundException;
 import ecommerce.repository.UserRepository;
+import ecommerce.security.PasswordHasher;
 import ecommerce.service.UserService;
 import ecommerce.util.UserMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,7 +24,7 @@ public class UserServiceImpl implements UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Autowired
     private UserMapper userMapper;
@@ -40,7 +40,7 @@ public class UserServiceImpl implements UserService {
         }
 
         User user = userMapper.toEntity(request);
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHasher.encode(request.getPassword()));
         
         User savedUser = userRepository.save(user);
         return userMapper.toResponse(savedUser);
@@ -121,4 +121,11 @@ public class UserServiceImpl implements UserService {
         return userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail)
                 .orElseThrow(() -> new UserNotFoundException("User not found with username or email: " + usernameOrEmail));
     }
+
+    @Override
+    public void updatePasswordHash(Long id, String encodedPassword) {
+        User user = findUserEntityById(id);
+        user.setPassword(encodedPassword);
+        userRepository.save(user);
+    }
 }
\ No newline at end of file
@@ -1,25 +1,27 @@
 package ecommerce.util;
 
+import ecommerce.cart.CartLine;
+import ecommerce.cart.CartState;
 import ecommerce.dto.CartItemResponse;
 import ecommerce.dto.CartResponse;
-import ecommerce.entity.Cart;
-import ecommerce.entity.CartItem;
+import ecommerce.dto.ProductResponse;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
 public class CartMapper {
 
-    public CartResponse toResponse(Cart cart) {
+    public CartResponse toResponse(CartState cart, Map<Long, ProductResponse> products) {
         CartResponse response = new CartResponse();
-        response.setId(cart.getId());
-        response.setUserId(cart.getUser().getId());
+        response.setId(cart.getCartId());
+        response.setUserId(cart.getUserId());
         response.setTotalAmount(cart.getTotalAmount());
         
-        List<CartItemResponse> itemResponses = cart.getCartItems().stream()
-                .map(this::toCartItemResponse)
+        List<CartItemResponse> itemResponses = cart.getLines().stream()
+                .map(line -> toCartItemResponse(line, products.get(line.getProductId())))
                 .collect(Collectors.toList());
         
         response.setItems(itemResponses);
@@ -28,16 +30,16 @@ public class CartMapper {
         return response;
     }
 
-    public CartItemResponse toCartItemResponse(CartItem cartItem) {
+    public CartItemResponse toCartItemResponse(CartLine line, ProductResponse product) {
         CartItemResponse response = new CartItemResponse();
-        response.setId(cartItem.getId());
-        response.setProductId(cartItem.getProduct().getId());
-        response.setProductName(cartItem.getProduct().getName());
-        response.setProductImage(cartItem.getProduct().getImageUrl());
-        response.setQuantity(cartItem.getQuantity());
-        response.setUnitPrice(cartItem.getUnitPrice());
-        response.setTotalPrice(cartItem.getTotalPrice());
-        response.setAvailableStock(cartItem.getProduct().getStockQuantity());
+        response.setId(line.getItemId());
+        response.setProductId(line.getProductId());
+        response.setProductName(product.getName());
+        response.setProductImage(product.getImageUrl());
+        response.setQuantity(line.getQuantity());
+        response.setUnitPrice(line.getUnitPrice());
+        response.setTotalPrice(line.getTotalPrice());
+        response.setAvailableStock(product.getStockQuantity());
         
         return response;
     }
@@ -0,0 +1,50 @@
+package ecommerce.util;
+
+import ecommerce.exception.InvalidCursorException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Component
+public class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode(Object... keys) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(keys[i]);
+        }
+        return ENCODER.encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String[] decode(String cursor, int expectedKeys) {
+        String[] keys;
+        try {
+            keys = new String(DECODER.decode(cursor), StandardCharsets.UTF_8).split("\\" + SEPARATOR, -1);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor, ex);
+        }
+
+        if (keys.length != expectedKeys) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+        return keys;
+    }
+
+    public Long decodeId(String cursor) {
+        String key = decode(cursor, 1)[0];
+        try {
+            return Long.valueOf(key);
+        } catch (NumberFormatException ex) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor, ex);
+        }
+    }
+}
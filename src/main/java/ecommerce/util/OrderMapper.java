@@ -1,5 +1,6 @@
 package ecommerce.util;
 
+import ecommerce.dto.OrderExportRow;
 import ecommerce.dto.OrderItemResponse;
 import ecommerce.dto.OrderResponse;
 import ecommerce.entity.Order;
@@ -12,6 +13,9 @@ import java.util.stream.Collectors;
 @Component
 public class OrderMapper {
 
+    public static final String CSV_HEADER = "order_id,user_id,username,status,order_date,order_total," +
+            "shipping_address,product_id,product_name,quantity,unit_price,item_total";
+
     public OrderResponse toResponse(Order order) {
         OrderResponse response = new OrderResponse();
         response.setId(order.getId());
@@ -43,4 +47,33 @@ public class OrderMapper {
         
         return response;
     }
+
+    public String toCsvRow(OrderExportRow row) {
+        StringBuilder line = new StringBuilder(256);
+        appendCsvField(line, row.getOrderId()).append(',');
+        appendCsvField(line, row.getUserId()).append(',');
+        appendCsvField(line, row.getUsername()).append(',');
+        appendCsvField(line, row.getStatus()).append(',');
+        appendCsvField(line, row.getOrderDate()).append(',');
+        appendCsvField(line, row.getOrderTotal()).append(',');
+        appendCsvField(line, row.getShippingAddress()).append(',');
+        appendCsvField(line, row.getProductId()).append(',');
+        appendCsvField(line, row.getProductName()).append(',');
+        appendCsvField(line, row.getQuantity()).append(',');
+        appendCsvField(line, row.getUnitPrice()).append(',');
+        appendCsvField(line, row.getItemTotal());
+        return line.toString();
+    }
+
+    private StringBuilder appendCsvField(StringBuilder line, Object value) {
+        if (value == null) {
+            return line;
+        }
+
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return line.append(text);
+        }
+        return line.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
 }
\ No newline at end of file
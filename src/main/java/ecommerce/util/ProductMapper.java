@@ -1,6 +1,7 @@
 package ecommerce.util;
 
 import ecommerce.dto.ProductResponse;
+import ecommerce.entity.Category;
 import ecommerce.entity.Product;
 import org.springframework.stereotype.Component;
 
@@ -8,20 +9,10 @@ import org.springframework.stereotype.Component;
 public class ProductMapper {
 
     public ProductResponse toResponse(Product product) {
-        ProductResponse response = new ProductResponse();
-        response.setId(product.getId());
-        response.setName(product.getName());
-        response.setDescription(product.getDescription());
-        response.setPrice(product.getPrice());
-        response.setStockQuantity(product.getStockQuantity());
-        response.setImageUrl(product.getImageUrl());
-        response.setActive(product.isActive());
-        
-        if (product.getCategory() != null) {
-            response.setCategoryId(product.getCategory().getId());
-            response.setCategoryName(product.getCategory().getName());
-        }
-        
-        return response;
+        Category category = product.getCategory();
+        return new ProductResponse(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getStockQuantity(), product.getImageUrl(),
+                category != null ? category.getName() : null, category != null ? category.getId() : null,
+                product.isActive());
     }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package ecommerce.cache;
+
+import ecommerce.entity.CatalogRevision;
+import ecommerce.event.CategoryChangedEvent;
+import ecommerce.repository.CatalogRevisionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogVersionTest {
+
+    @Test
+    void failedIncrementIsRetriedWithoutAnotherChange() throws Exception {
+        CatalogRevisionRepository catalogRevisionRepository = mock(CatalogRevisionRepository.class);
+        when(catalogRevisionRepository.findAll()).thenReturn(List.of(
+                new CatalogRevision(CatalogRevision.CONTENT, 1L), new CatalogRevision(CatalogRevision.STOCK, 1L)));
+        when(catalogRevisionRepository.increment(anyCollection()))
+                .thenThrow(new DataAccessResourceFailureException("database unreachable"))
+                .thenReturn(1);
+        CatalogVersion catalogVersion = new CatalogVersion();
+        ReflectionTestUtils.setField(catalogVersion, "catalogRevisionRepository", catalogRevisionRepository);
+        ReflectionTestUtils.setField(catalogVersion, "refreshInterval", Duration.ofMinutes(1));
+
+        catalogVersion.onCategoryChanged(new CategoryChangedEvent(1L));
+        drain(catalogVersion);
+        assertThat(catalogVersion.getCategoryEtag()).contains("-");
+
+        catalogVersion.publishPending();
+        drain(catalogVersion);
+        assertThat(catalogVersion.getCategoryEtag()).doesNotContain("-");
+        verify(catalogRevisionRepository, times(2)).increment(anyCollection());
+
+        catalogVersion.shutdown();
+    }
+
+    // Waits for the increments queued so far
+    private static void drain(CatalogVersion catalogVersion) throws Exception {
+        ExecutorService incrementer = (ExecutorService) ReflectionTestUtils.getField(catalogVersion, "incrementer");
+        incrementer.submit(() -> { }).get();
+    }
+}
\ No newline at end of file
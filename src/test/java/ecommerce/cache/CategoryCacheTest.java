@@ -0,0 +1,74 @@
+package ecommerce.cache;
+
+import ecommerce.dto.CategoryResponse;
+import ecommerce.entity.Category;
+import ecommerce.repository.CategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CategoryCacheTest {
+
+    @Test
+    void namesAreLookedUpCaseInsensitively() {
+        CategoryCache cache = cacheOf(category(1L, "Electronics"));
+
+        assertThat(cache.getByName("electronics").getId()).isEqualTo(1L);
+        assertThat(cache.getByName("ELECTRONICS").getId()).isEqualTo(1L);
+        assertThat(cache.getByName("Garden")).isNull();
+    }
+
+    @Test
+    void snapshotCannotBeChangedByCallers() {
+        CategoryCache cache = cacheOf(category(1L, "Electronics"));
+
+        List<CategoryResponse> all = cache.getAll();
+
+        assertThatThrownBy(() -> all.add(new CategoryResponse(2L, "Garden", null)))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThat(cache.getById(1L)).isSameAs(all.get(0));
+    }
+
+    @Test
+    void anotherNodesChangeIsPickedUpWhenTheContentVersionMoves() {
+        CategoryRepository categoryRepository = mock(CategoryRepository.class);
+        when(categoryRepository.findAll()).thenReturn(List.of(category(1L, "Electronics")));
+        CatalogVersion catalogVersion = mock(CatalogVersion.class);
+        when(catalogVersion.getContentVersion()).thenReturn(7L);
+        CategoryCache cache = cacheOf(categoryRepository, catalogVersion);
+
+        when(categoryRepository.findAll()).thenReturn(List.of(category(1L, "Electronics"), category(2L, "Garden")));
+        assertThat(cache.getAll()).hasSize(1);
+
+        when(catalogVersion.getContentVersion()).thenReturn(8L);
+        assertThat(cache.getAll()).hasSize(2);
+        assertThat(cache.getByName("garden").getId()).isEqualTo(2L);
+    }
+
+    private static CategoryCache cacheOf(Category... categories) {
+        CategoryRepository categoryRepository = mock(CategoryRepository.class);
+        when(categoryRepository.findAll()).thenReturn(List.of(categories));
+        return cacheOf(categoryRepository, mock(CatalogVersion.class));
+    }
+
+    private static CategoryCache cacheOf(CategoryRepository categoryRepository, CatalogVersion catalogVersion) {
+        CategoryCache cache = new CategoryCache();
+        ReflectionTestUtils.setField(cache, "categoryRepository", categoryRepository);
+        ReflectionTestUtils.setField(cache, "catalogVersion", catalogVersion);
+        cache.rebuild();
+        return cache;
+    }
+
+    private static Category category(Long id, String name) {
+        Category category = new Category();
+        category.setId(id);
+        category.setName(name);
+        return category;
+    }
+}
\ No newline at end of file
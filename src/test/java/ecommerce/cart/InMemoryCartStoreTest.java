@@ -0,0 +1,129 @@
+package ecommerce.cart;
+
+import ecommerce.dto.AddToCartRequest;
+import ecommerce.dto.CartItemResponse;
+import ecommerce.dto.UserRegistrationRequest;
+import ecommerce.entity.Product;
+import ecommerce.metrics.SqlStatistics;
+import ecommerce.repository.CartRepository;
+import ecommerce.repository.ProductRepository;
+import ecommerce.service.CartService;
+import ecommerce.service.ProductService;
+import ecommerce.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "ecommerce.cart.store=memory")
+class InMemoryCartStoreTest {
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private InMemoryCartStore cartStore;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long userId;
+    private Long orderedId;
+    private Long addedId;
+
+    @BeforeEach
+    void setUp() {
+        userId = registerUser("memory-cart-" + USERS.incrementAndGet());
+        orderedId = saveProduct("Ordered line");
+        addedId = saveProduct("Added during checkout");
+    }
+
+    // A line added between the checkout's flush and its commit was not ordered and must not be cleared
+    @Test
+    void clearAfterCheckoutKeepsLinesAddedSinceTheFlush() {
+        add(orderedId, 1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            long flushed = cartStore.flush(userId);
+            add(addedId, 2);
+            cartStore.clearCart(userId, flushed);
+        });
+
+        assertThat(cartService.getCartByUserId(userId).getItems())
+                .extracting(CartItemResponse::getProductId)
+                .containsExactly(addedId);
+
+        cartStore.flushDirtyCarts();
+        transactionTemplate.executeWithoutResult(status -> assertThat(
+                cartRepository.findByUserId(userId).orElseThrow().getCartItems())
+                .extracting(item -> item.getProduct().getId())
+                .containsExactly(addedId));
+    }
+
+    // Mutations of a cart held in memory cost no statements on the request path; the write-behind flush
+    // writes each changed cart once per interval
+    @Test
+    void mutationsOfAHeldCartRunWithoutStatements() {
+        // The first touch loads the cart, creating it for a new user, and warms the product cache
+        productService.getProductsByIds(List.of(orderedId, addedId));
+        cartService.getCartByUserId(userId);
+
+        assertThat(statements(() -> add(orderedId, 1))).isZero();
+        assertThat(statements(() -> cartService.updateCartItem(userId, orderedId, 3))).isZero();
+        assertThat(statements(() -> add(addedId, 1))).isZero();
+        assertThat(statements(() -> cartService.removeFromCart(userId, addedId))).isZero();
+    }
+
+    private long statements(Runnable action) {
+        SqlStatistics stats = SqlStatistics.current();
+        long before = stats.getStatements();
+        action.run();
+        return stats.getStatements() - before;
+    }
+
+    private void add(Long productId, int quantity) {
+        AddToCartRequest request = new AddToCartRequest();
+        request.setProductId(productId);
+        request.setQuantity(quantity);
+        cartService.addToCart(userId, request);
+    }
+
+    private Long saveProduct(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal("3.00"));
+        product.setStockQuantity(100);
+        return productRepository.save(product).getId();
+    }
+
+    private Long registerUser(String username) {
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setUsername(username);
+        request.setEmail(username + "@example.com");
+        request.setPassword("secret1");
+        request.setFirstName("Memory");
+        request.setLastName("Cart");
+        return userService.registerUser(request).getId();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package ecommerce.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "ecommerce.jpa.id-allocation-size=7")
+class JpaConfigTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void sequencesUseTheConfiguredAllocationSize() {
+        Long increment = jdbcTemplate.queryForObject(
+                "SELECT INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'ORDERS_SEQ'", Long.class);
+        assertThat(increment).isEqualTo(7);
+    }
+}
\ No newline at end of file
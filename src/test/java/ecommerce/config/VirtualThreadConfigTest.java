@@ -0,0 +1,27 @@
+package ecommerce.config;
+
+import ecommerce.metrics.StatementStatisticsDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The limiter must find the pool size through the statement statistics wrapper, whichever wraps first
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.hikari.maximum-pool-size=40"
+})
+class VirtualThreadConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void limiterFollowsTheConfiguredPoolSize() throws Exception {
+        assertThat(dataSource.isWrapperFor(StatementStatisticsDataSource.class)).isTrue();
+        assertThat(dataSource.unwrap(ConcurrencyLimitingDataSource.class).getMaxConcurrency()).isEqualTo(40);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package ecommerce.controller;
+
+import ecommerce.cache.CatalogVersion;
+import ecommerce.entity.CatalogRevision;
+import ecommerce.entity.Product;
+import ecommerce.repository.CatalogRevisionRepository;
+import ecommerce.repository.ProductRepository;
+import ecommerce.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Refresh on every request, so a write by "another node" (a direct counter increment) is seen at once
+@SpringBootTest(properties = "ecommerce.catalog.version-refresh=0s")
+@AutoConfigureMockMvc
+class CatalogEtagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CatalogRevisionRepository catalogRevisionRepository;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Test
+    void stockChangesOnlyInvalidateThatProductAndProductLists() throws Exception {
+        Long viewed = saveProduct("Viewed lamp");
+        Long sold = saveProduct("Sold lamp");
+        awaitPublished();
+        String productTag = etag("/api/products/" + viewed);
+        String soldTag = etag("/api/products/" + sold);
+        String listTag = etag("/api/products/all");
+        String categoriesTag = etag("/api/categories");
+
+        productService.updateStock(sold, 1);
+
+        assertThat(revalidate("/api/products/" + viewed, productTag)).isEqualTo(304);
+        assertThat(revalidate("/api/categories", categoriesTag)).isEqualTo(304);
+        assertThat(revalidate("/api/products/" + sold, soldTag)).isEqualTo(200);
+        assertThat(revalidate("/api/products/all", listTag)).isEqualTo(200);
+    }
+
+    @Test
+    void contentChangedByAnotherNodeInvalidatesEveryTag() throws Exception {
+        Long product = saveProduct("Shared lamp");
+        awaitPublished();
+        String productTag = etag("/api/products/" + product);
+        String categoriesTag = etag("/api/categories");
+
+        catalogRevisionRepository.increment(Set.of(CatalogRevision.CONTENT));
+
+        assertThat(revalidate("/api/products/" + product, productTag)).isEqualTo(200);
+        assertThat(revalidate("/api/categories", categoriesTag)).isEqualTo(200);
+    }
+
+    // Tags taken while the saves are still pending would change once they are published
+    private void awaitPublished() throws Exception {
+        ExecutorService incrementer = (ExecutorService) ReflectionTestUtils.getField(catalogVersion, "incrementer");
+        incrementer.submit(() -> { }).get();
+    }
+
+    private String etag(String path) throws Exception {
+        String etag = mockMvc.perform(get(path)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+        return etag;
+    }
+
+    private int revalidate(String path, String etag) throws Exception {
+        return mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse().getStatus();
+    }
+
+    private Long saveProduct(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal("20.00"));
+        product.setStockQuantity(10);
+        return productRepository.save(product).getId();
+    }
+}
\ No newline at end of file
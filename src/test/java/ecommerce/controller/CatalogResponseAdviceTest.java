@@ -0,0 +1,92 @@
+package ecommerce.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ecommerce.cache.CatalogResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogResponseAdviceTest {
+
+    private static final String ETAG = "\"1.1\"";
+
+    @Test
+    void gzipIsServedOnlyWhenAcceptable() {
+        assertThat(CatalogResponseAdvice.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(CatalogResponseAdvice.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+        assertThat(CatalogResponseAdvice.acceptsGzip("*")).isTrue();
+        assertThat(CatalogResponseAdvice.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(CatalogResponseAdvice.acceptsGzip("gzip; q=0.000, *")).isFalse();
+        assertThat(CatalogResponseAdvice.acceptsGzip("*;q=0")).isFalse();
+        assertThat(CatalogResponseAdvice.acceptsGzip("identity")).isFalse();
+        assertThat(CatalogResponseAdvice.acceptsGzip("gzip;q=abc")).isFalse();
+        assertThat(CatalogResponseAdvice.acceptsGzip(null)).isFalse();
+    }
+
+    @Test
+    void cachedBodyHonoursZeroQuality() throws Exception {
+        MockHttpServletResponse response = write(true, "gzip;q=0");
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getHeaders(HttpHeaders.VARY)).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(write(true, "gzip").getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+    }
+
+    @Test
+    void varyIsSentWithTheCacheDisabled() throws Exception {
+        MockHttpServletResponse response = write(false, "gzip");
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+        assertThat(response.getHeaders(HttpHeaders.VARY)).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    // Mirrors preHandle: a cache key is only set while the response cache is enabled
+    private static MockHttpServletResponse write(boolean cacheEnabled, String acceptEncoding)
+            throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/all");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        request.setAttribute(CatalogResponseAdvice.class.getName() + ".etag", ETAG);
+        if (cacheEnabled) {
+            request.setAttribute(CatalogResponseAdvice.class.getName() + ".cacheKey", ETAG + "/api/products/all");
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ServletServerHttpResponse serverResponse = new ServletServerHttpResponse(response);
+        advice(cacheEnabled).beforeBodyWrite(List.of(Map.of("name", "Desk lamp")), null, MediaType.APPLICATION_JSON,
+                MappingJackson2HttpMessageConverter.class, new ServletServerHttpRequest(request), serverResponse);
+        serverResponse.flush();
+        return response;
+    }
+
+    private static CatalogResponseAdvice advice(boolean cacheEnabled) {
+        CatalogResponseCache cache = new CatalogResponseCache();
+        ReflectionTestUtils.setField(cache, "enabled", cacheEnabled);
+        ReflectionTestUtils.setField(cache, "maximumWeight", DataSize.ofMegabytes(1));
+        ReflectionTestUtils.setField(cache, "gzipMinSize", DataSize.ofBytes(0));
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        cache.init();
+
+        CatalogResponseAdvice advice = new CatalogResponseAdvice();
+        ReflectionTestUtils.setField(advice, "responseCache", cache);
+        ReflectionTestUtils.setField(advice, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(advice, "maxAge", Duration.ZERO);
+        advice.init();
+        return advice;
+    }
+}
\ No newline at end of file
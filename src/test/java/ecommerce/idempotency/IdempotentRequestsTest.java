@@ -0,0 +1,64 @@
+package ecommerce.idempotency;
+
+import ecommerce.dto.OrderCreateRequest;
+import ecommerce.exception.IdempotencyKeyMismatchException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class IdempotentRequestsTest {
+
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void retryWithTheSameBodyReplaysTheFirstResult() {
+        AtomicInteger runs = new AtomicInteger();
+        double hits = cacheGets("hit");
+        double misses = cacheGets("miss");
+
+        IdempotentRequests.Result<Integer> first = idempotentRequests.execute(
+                "test", "same-body", order("1 Retry Road"), runs::incrementAndGet);
+        IdempotentRequests.Result<Integer> retry = idempotentRequests.execute(
+                "test", "same-body", order("1 Retry Road"), runs::incrementAndGet);
+
+        assertThat(first.isReplayed()).isFalse();
+        assertThat(retry.isReplayed()).isTrue();
+        assertThat(retry.getValue()).isEqualTo(first.getValue());
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(cacheGets("miss")).isEqualTo(misses + 1);
+        assertThat(cacheGets("hit")).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void reusingAKeyWithADifferentBodyIsRejected() {
+        AtomicInteger runs = new AtomicInteger();
+        idempotentRequests.execute("test", "other-body", order("1 Retry Road"), runs::incrementAndGet);
+
+        assertThatThrownBy(() -> idempotentRequests.execute(
+                "test", "other-body", order("2 Other Street"), runs::incrementAndGet))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(runs.get()).isEqualTo(1);
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "idempotency_keys").tag("result", result)
+                .functionCounter().count();
+    }
+
+    private OrderCreateRequest order(String shippingAddress) {
+        OrderCreateRequest request = new OrderCreateRequest();
+        request.setShippingAddress(shippingAddress);
+        return request;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+package ecommerce.outbox;
+
+import ecommerce.entity.OutboxEvent;
+import ecommerce.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+// The scheduled relay runs once at startup and then stays out of the way
+@SpringBootTest(properties = "ecommerce.outbox.relay-interval=PT1H")
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxEvents outboxEvents;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @SpyBean
+    private InMemoryOutboxEventSink sink;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void secondRelayBacksOffInsteadOfOvertakingTheFirst() throws Exception {
+        record(-1);
+        record(-2);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> firstRelay = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    outboxEventRepository.findNextBatch(Limit.of(1));
+                    locked.countDown();
+                    await(release);
+                }));
+        assertThat(locked.await(30, TimeUnit.SECONDS)).isTrue();
+
+        // MySQL fails at once with NOWAIT; H2 has no NOWAIT and gives up after its own lock timeout
+        try {
+            assertThatThrownBy(() -> outboxEvents.relayBatch(10)).isInstanceOf(DataAccessException.class);
+            assertThat(sink.getEvents()).isEmpty();
+        } finally {
+            release.countDown();
+        }
+        firstRelay.get(30, TimeUnit.SECONDS);
+
+        assertThat(outboxEvents.relayBatch(10)).isEqualTo(2);
+        assertThat(sink.getEvents()).extracting(OutboxEvent::getPayload)
+                .containsExactly("{\"delta\":-1}", "{\"delta\":-2}");
+    }
+
+    // Inserts must not queue behind the relay's gap lock while the sink runs
+    @Test
+    void sinkRunsInsideAReadCommittedTransaction() {
+        record(-3);
+        AtomicReference<Integer> isolation = new AtomicReference<>();
+        doAnswer(invocation -> {
+            isolation.set(TransactionSynchronizationManager.getCurrentTransactionIsolationLevel());
+            return null;
+        }).when(sink).publish(any());
+
+        assertThat(outboxEvents.relayBatch(10)).isEqualTo(1);
+        assertThat(isolation.get()).isEqualTo(Isolation.READ_COMMITTED.value());
+    }
+
+    private void record(int delta) {
+        transactionTemplate.executeWithoutResult(status ->
+                outboxEvents.record("Product", 1L, "STOCK_CHANGED", Map.of("delta", delta)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
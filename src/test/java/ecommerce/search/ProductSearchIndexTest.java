@@ -0,0 +1,117 @@
+package ecommerce.search;
+
+import ecommerce.entity.Product;
+import ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexTest {
+
+    private ProductRepository productRepository;
+    private TaskScheduler taskScheduler;
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        taskScheduler = mock(TaskScheduler.class);
+        index = new ProductSearchIndex();
+        ReflectionTestUtils.setField(index, "productRepository", productRepository);
+        ReflectionTestUtils.setField(index, "taskScheduler", taskScheduler);
+    }
+
+    @Test
+    void failedStartupBuildIsRetried() {
+        when(productRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class)))
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+
+        index.onApplicationReady();
+
+        verify(taskScheduler, timeout(5000)).schedule(any(Runnable.class), any(Instant.class));
+        assertThat(index.isReady()).isFalse();
+    }
+
+    @Test
+    void noRetryIsScheduledOnceShutdownHasBegun() {
+        when(productRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class)))
+                .thenThrow(new DataAccessResourceFailureException("database closed"));
+
+        index.onContextClosed();
+        ReflectionTestUtils.invokeMethod(index, "buildInitialIndex", Duration.ofSeconds(5));
+
+        verify(taskScheduler, never()).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void rejectedRetryDoesNotEscapeTheBuilder() {
+        when(productRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class)))
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+        when(taskScheduler.schedule(any(Runnable.class), any(Instant.class)))
+                .thenThrow(new TaskRejectedException("scheduler terminated"));
+
+        ReflectionTestUtils.invokeMethod(index, "buildInitialIndex", Duration.ofSeconds(5));
+
+        assertThat(index.isReady()).isFalse();
+    }
+
+    @Test
+    void failedRebuildStopsBufferingChanges() {
+        when(productRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class)))
+                .thenThrow(new DataAccessResourceFailureException("database down"))
+                .thenReturn(List.of(product(1L, "walnut desk")));
+
+        assertThatThrownBy(index::rebuild).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(ReflectionTestUtils.getField(index, "changedDuringRebuild")).isNull();
+
+        index.rebuild();
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search("walnut", 10)).containsExactly(1L);
+    }
+
+    // More completions than the cap: the one in the most products must survive even though it sorts last
+    @Test
+    void prefixExpansionKeepsTheMostCommonTerms() {
+        List<Product> products = new ArrayList<>();
+        long id = 1;
+        for (int i = 0; i < 100; i++) {
+            products.add(product(id++, String.format("lamp%03d", i)));
+        }
+        for (int i = 0; i < 3; i++) {
+            products.add(product(id++, "lampzz"));
+        }
+        when(productRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class)))
+                .thenReturn(products);
+
+        index.rebuild();
+
+        assertThat(index.search("lamp", 200)).contains(101L, 102L, 103L);
+    }
+
+    private Product product(Long id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setActive(true);
+        return product;
+    }
+}
\ No newline at end of file
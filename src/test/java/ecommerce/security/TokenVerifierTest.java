@@ -0,0 +1,101 @@
+package ecommerce.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import ecommerce.entity.RevokedToken;
+import ecommerce.entity.UserRole;
+import ecommerce.exception.InvalidTokenException;
+import ecommerce.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenVerifierTest {
+
+    private JwtTokenProvider jwtTokenProvider;
+    private RevokedTokenRepository revokedTokenRepository;
+    private TokenVerifier tokenVerifier;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = mock(JwtTokenProvider.class);
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        tokenVerifier = new TokenVerifier();
+        ReflectionTestUtils.setField(tokenVerifier, "jwtTokenProvider", jwtTokenProvider);
+        ReflectionTestUtils.setField(tokenVerifier, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenVerifier, "revokedTokenRepository", revokedTokenRepository);
+        ReflectionTestUtils.setField(tokenVerifier, "maximumSize", 100L);
+        ReflectionTestUtils.setField(tokenVerifier, "revokedMaximumSize", 3L);
+        tokenVerifier.init();
+    }
+
+    @Test
+    void revocationIsForgottenWhenTheTokenExpires() throws Exception {
+        when(jwtTokenProvider.parseToken("short-lived"))
+                .thenReturn(user(Instant.now().plusMillis(300)));
+
+        tokenVerifier.revoke("short-lived");
+        assertThatThrownBy(() -> tokenVerifier.verify("short-lived"))
+                .isInstanceOf(InvalidTokenException.class);
+        String digest = ReflectionTestUtils.invokeMethod(tokenVerifier, "digest", "short-lived");
+        assertThat(revoked().getIfPresent(digest)).isNotNull();
+
+        Thread.sleep(500);
+
+        assertThat(revoked().getIfPresent(digest)).isNull();
+    }
+
+    @Test
+    void revokedTokensAreBounded() {
+        when(jwtTokenProvider.parseToken(anyString())).thenReturn(user(Instant.now().plusSeconds(3600)));
+
+        for (int i = 0; i < 10; i++) {
+            tokenVerifier.revoke("token-" + i);
+        }
+        revoked().cleanUp();
+
+        assertThat(revoked().estimatedSize()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void revocationOnAnotherNodeIsPickedUpBySync() {
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        when(jwtTokenProvider.parseToken("shared")).thenReturn(user(expiresAt));
+        assertThat(tokenVerifier.verify("shared").getUsername()).isEqualTo("alice");
+
+        String digest = ReflectionTestUtils.invokeMethod(tokenVerifier, "digest", "shared");
+        when(revokedTokenRepository.findByRevokedAtAfter(any()))
+                .thenReturn(List.of(new RevokedToken(digest, expiresAt, Instant.now())));
+        tokenVerifier.syncRevocations();
+
+        assertThatThrownBy(() -> tokenVerifier.verify("shared")).isInstanceOf(InvalidTokenException.class);
+    }
+
+    @Test
+    void revokedTableIsCheckedBeforeATokenIsCached() {
+        when(jwtTokenProvider.parseToken("logged-out")).thenReturn(user(Instant.now().plusSeconds(3600)));
+        String digest = ReflectionTestUtils.invokeMethod(tokenVerifier, "digest", "logged-out");
+        when(revokedTokenRepository.existsById(digest)).thenReturn(true);
+
+        assertThatThrownBy(() -> tokenVerifier.verify("logged-out")).isInstanceOf(InvalidTokenException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<String, Instant> revoked() {
+        return (Cache<String, Instant>) ReflectionTestUtils.getField(tokenVerifier, "revoked");
+    }
+
+    private static AuthenticatedUser user(Instant expiresAt) {
+        return new AuthenticatedUser(1L, "alice", UserRole.CUSTOMER, expiresAt);
+    }
+}
\ No newline at end of file
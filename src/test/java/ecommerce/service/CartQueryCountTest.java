@@ -0,0 +1,121 @@
+package ecommerce.service;
+
+import ecommerce.cache.ProductCache;
+import ecommerce.dto.AddToCartRequest;
+import ecommerce.dto.CartResponse;
+import ecommerce.dto.UserRegistrationRequest;
+import ecommerce.entity.Category;
+import ecommerce.entity.Product;
+import ecommerce.metrics.SqlStatistics;
+import ecommerce.repository.CategoryRepository;
+import ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The write-through store reads the cart from the database on every call, so this measures the Cart.details
+// graph: one query for the cart and its lines, plus at most one for products missing from the product cache.
+@SpringBootTest(properties = "ecommerce.cart.store=jpa")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CartQueryCountTest {
+
+    private static final int LINES = 5;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    private Long userId;
+
+    @BeforeAll
+    void fillCart() {
+        Category category = new Category();
+        category.setName("Query count carts");
+        category = categoryRepository.save(category);
+
+        UserRegistrationRequest registration = new UserRegistrationRequest();
+        registration.setUsername("cart-counter");
+        registration.setEmail("cart-counter@example.com");
+        registration.setPassword("secret1");
+        registration.setFirstName("Query");
+        registration.setLastName("Count");
+        userId = userService.registerUser(registration).getId();
+
+        for (int i = 0; i < LINES; i++) {
+            Product product = new Product();
+            product.setName("Cart counted product " + i);
+            product.setPrice(new BigDecimal("2.50"));
+            product.setStockQuantity(100);
+            product.setCategory(category);
+            AddToCartRequest request = new AddToCartRequest();
+            request.setProductId(productRepository.save(product).getId());
+            request.setQuantity(2);
+            cartService.addToCart(userId, request);
+        }
+    }
+
+    @Test
+    void getCartByUserIdLoadsCartAndLinesInOneQuery() {
+        getCart();
+
+        long statements = countStatements();
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @Test
+    void getCartByUserIdLoadsUncachedProductsInOneQuery() {
+        productCache.invalidateAll();
+
+        long statements = countStatements();
+
+        assertThat(statements).isEqualTo(2);
+    }
+
+    // The cart row lock, one read of the cart aggregate, then the changed item row and the cart total at commit
+    @Test
+    void mutationsLoadTheCartOnce() {
+        Long productId = getCart().getItems().get(0).getProductId();
+        getCart();
+
+        assertThat(statements(() -> cartService.updateCartItem(userId, productId, 3))).isEqualTo(4);
+        assertThat(statements(() -> cartService.updateCartItem(userId, productId, 2))).isEqualTo(4);
+    }
+
+    private long statements(Runnable action) {
+        SqlStatistics stats = SqlStatistics.current();
+        long before = stats.getStatements();
+        action.run();
+        return stats.getStatements() - before;
+    }
+
+    private long countStatements() {
+        SqlStatistics stats = SqlStatistics.current();
+        long before = stats.getStatements();
+        CartResponse cart = getCart();
+        long statements = stats.getStatements() - before;
+        assertThat(cart.getItems()).hasSize(LINES);
+        return statements;
+    }
+
+    private CartResponse getCart() {
+        return cartService.getCartByUserId(userId);
+    }
+}
@@ -0,0 +1,129 @@
+package ecommerce.service;
+
+import ecommerce.dto.AddToCartRequest;
+import ecommerce.dto.DailySalesResponse;
+import ecommerce.dto.OrderCreateRequest;
+import ecommerce.dto.UserRegistrationRequest;
+import ecommerce.entity.OrderStatus;
+import ecommerce.entity.Product;
+import ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Duplicate cancellations race for the same order; only one may restore stock and reverse the rollups
+@SpringBootTest
+class OrderCancellationConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int STOCK = 100;
+    private static final int QUANTITY = 3;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void concurrentCancellationsRestoreStockOnce() throws Exception {
+        Product product = new Product();
+        product.setName("Cancelled twice");
+        product.setPrice(new BigDecimal("12.00"));
+        product.setStockQuantity(STOCK);
+        Long productId = productRepository.save(product).getId();
+
+        // A second order that stays placed keeps today's rollup row non-empty for the rebuild comparison
+        Long userId = registerUser("double-cancel");
+        placeOrder(userId, productId);
+        Long orderId = placeOrder(userId, productId);
+        long ordersToday = ordersToday();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger cancelled = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    start.await();
+                    try {
+                        orderService.cancelOrder(orderId);
+                        cancelled.incrementAndGet();
+                    } catch (IllegalStateException ex) {
+                        refused.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(cancelled.get()).isEqualTo(1);
+        assertThat(refused.get()).isEqualTo(THREADS - 1);
+        assertThat(orderService.getOrderById(orderId).getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(productRepository.findStockQuantityById(productId)).contains(STOCK - QUANTITY);
+        assertThat(ordersToday()).isEqualTo(ordersToday - 1);
+
+        // The incremental rollups must agree with a rebuild from the orders table
+        List<DailySalesResponse> incremental = salesAnalyticsService.getDailySales(LocalDate.now(), LocalDate.now());
+        salesAnalyticsService.rebuild();
+        List<DailySalesResponse> rebuilt = salesAnalyticsService.getDailySales(LocalDate.now(), LocalDate.now());
+        assertThat(rebuilt).usingRecursiveFieldByFieldElementComparator().isEqualTo(incremental);
+    }
+
+    private Long placeOrder(Long userId, Long productId) {
+        AddToCartRequest item = new AddToCartRequest();
+        item.setProductId(productId);
+        item.setQuantity(QUANTITY);
+        cartService.addToCart(userId, item);
+        OrderCreateRequest order = new OrderCreateRequest();
+        order.setShippingAddress("2 Race Street");
+        return orderService.createOrder(userId, order).getId();
+    }
+
+    private long ordersToday() {
+        return salesAnalyticsService.getDailySales(LocalDate.now(), LocalDate.now()).stream()
+                .mapToLong(DailySalesResponse::getOrderCount)
+                .sum();
+    }
+
+    private Long registerUser(String username) {
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setUsername(username);
+        request.setEmail(username + "@example.com");
+        request.setPassword("secret1");
+        request.setFirstName("Double");
+        request.setLastName("Cancel");
+        return userService.registerUser(request).getId();
+    }
+}
\ No newline at end of file
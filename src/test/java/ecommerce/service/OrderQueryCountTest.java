@@ -0,0 +1,170 @@
+package ecommerce.service;
+
+import ecommerce.dto.AddToCartRequest;
+import ecommerce.dto.OrderCreateRequest;
+import ecommerce.dto.OrderResponse;
+import ecommerce.dto.UserRegistrationRequest;
+import ecommerce.entity.Category;
+import ecommerce.entity.OrderStatus;
+import ecommerce.entity.Product;
+import ecommerce.metrics.SqlStatistics;
+import ecommerce.repository.CategoryRepository;
+import ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Order reads load the order, its user and its items with their products through the Order.details graph.
+// The statement counts below must not grow with the number of orders or items; if they do, N+1 is back.
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderQueryCountTest {
+
+    private static final int ORDERS = 6;
+    private static final int ITEMS_PER_ORDER = 4;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<Long> orderIds = new ArrayList<>();
+    private long lastCount;
+
+    @BeforeAll
+    void placeOrders() throws InterruptedException {
+        Category category = new Category();
+        category.setName("Query count orders");
+        category = categoryRepository.save(category);
+
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            Product product = new Product();
+            product.setName("Counted product " + i);
+            product.setPrice(new BigDecimal("4.25"));
+            product.setStockQuantity(1000);
+            product.setCategory(category);
+            productIds.add(productRepository.save(product).getId());
+        }
+
+        Long userId = registerUser("order-counter");
+        for (int o = 0; o < ORDERS; o++) {
+            for (Long productId : productIds) {
+                AddToCartRequest request = new AddToCartRequest();
+                request.setProductId(productId);
+                request.setQuantity(1);
+                cartService.addToCart(userId, request);
+            }
+            OrderCreateRequest request = new OrderCreateRequest();
+            request.setShippingAddress("1 Counting Road");
+            orderIds.add(orderService.createOrder(userId, request).getId());
+        }
+        awaitConfirmed();
+    }
+
+    @Test
+    void getAllOrdersLoadsThePageWithoutPerOrderQueries() {
+        assertThat(statements(() -> orderService.getAllOrders(null, ORDERS)).getItems()).hasSize(ORDERS);
+        assertThat(lastCount).isEqualTo(2);
+    }
+
+    @Test
+    void getOrdersByStatusLoadsThePageWithoutPerOrderQueries() {
+        assertThat(statements(() -> orderService.getOrdersByStatus(OrderStatus.CONFIRMED, null, ORDERS)).getItems())
+                .hasSize(ORDERS);
+        assertThat(lastCount).isEqualTo(2);
+    }
+
+    @Test
+    void getOrderByIdLoadsTheWholeOrderInOneQuery() {
+        OrderResponse order = statements(() -> orderService.getOrderById(orderIds.get(0)));
+        assertThat(order.getOrderItems()).hasSize(ITEMS_PER_ORDER);
+        assertThat(lastCount).isEqualTo(1);
+    }
+
+    // Items are inserted, reserved, rolled up and written to the outbox in batches, so a large cart costs
+    // the same statements as a one-item cart. Pooled sequences fetch a new block now and then; allow
+    // one fetch per sequence (orders, order_items).
+    @Test
+    void checkoutStatementsDoNotGrowWithCartSize() {
+        List<Long> productIds = new ArrayList<>();
+        for (int c = 0; c < 3; c++) {
+            Category category = new Category();
+            category.setName("Checkout count " + c);
+            category = categoryRepository.save(category);
+            for (int i = 0; i < 4; i++) {
+                Product product = new Product();
+                product.setName("Checkout counted " + c + "-" + i);
+                product.setPrice(new BigDecimal("2.50"));
+                product.setStockQuantity(1000);
+                product.setCategory(category);
+                productIds.add(productRepository.save(product).getId());
+            }
+        }
+
+        long oneItem = checkoutStatements(registerUser("checkout-one"), productIds.subList(0, 1));
+        long twelveItems = checkoutStatements(registerUser("checkout-twelve"), productIds);
+
+        assertThat(twelveItems).isBetween(oneItem - 2, oneItem + 2);
+    }
+
+    private long checkoutStatements(Long userId, List<Long> productIds) {
+        for (Long productId : productIds) {
+            AddToCartRequest request = new AddToCartRequest();
+            request.setProductId(productId);
+            request.setQuantity(2);
+            cartService.addToCart(userId, request);
+        }
+        OrderCreateRequest request = new OrderCreateRequest();
+        request.setShippingAddress("2 Batching Lane");
+        OrderResponse order = statements(() -> orderService.createOrder(userId, request));
+        assertThat(order.getOrderItems()).hasSize(productIds.size());
+        return lastCount;
+    }
+
+    // Orders are confirmed by the fulfillment consumers; wait so the status query sees all of them
+    private void awaitConfirmed() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (orderIds.stream().anyMatch(id -> orderService.getOrderById(id).getStatus() != OrderStatus.CONFIRMED)) {
+            assertThat(System.currentTimeMillis()).as("orders confirmed in time").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private <T> T statements(Supplier<T> call) {
+        SqlStatistics stats = SqlStatistics.current();
+        long before = stats.getStatements();
+        T result = call.get();
+        lastCount = stats.getStatements() - before;
+        return result;
+    }
+
+    private Long registerUser(String username) {
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setUsername(username);
+        request.setEmail(username + "@example.com");
+        request.setPassword("secret1");
+        request.setFirstName("Query");
+        request.setLastName("Count");
+        return userService.registerUser(request).getId();
+    }
+}
@@ -0,0 +1,109 @@
+package ecommerce.service;
+
+import ecommerce.entity.Product;
+import ecommerce.exception.InsufficientStockException;
+import ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Many buyers race for one SKU; the guarded decrement must sell exactly the stock on hand and never more.
+// Scale the race with -Dstock.attempts=<n>; StockBenchmark compares throughput with the old read-modify-write.
+@SpringBootTest
+class ProductStockConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = Math.max(Integer.getInteger("stock.attempts", 2000) / THREADS, 1);
+    // A quarter of the attempts succeed, so the race runs both while stock lasts and after it is gone
+    private static final int INITIAL_STOCK = Math.max(THREADS * ATTEMPTS_PER_THREAD / 4, 1);
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void updateStockNeverOversellsUnderContention() throws Exception {
+        Long productId = createProduct("Contended single");
+
+        int sold = race(() -> productService.updateStock(productId, 1));
+
+        assertThat(sold).isEqualTo(INITIAL_STOCK);
+        assertThat(stockOf(productId)).isEqualTo(0);
+    }
+
+    @Test
+    void reserveStockNeverOversellsUnderContention() throws Exception {
+        Long productId = createProduct("Contended batch");
+        Long otherProductId = createProduct("Contended batch companion");
+
+        int sold = race(() -> productService.reserveStock(Map.of(productId, 1, otherProductId, 1)));
+
+        assertThat(sold).isEqualTo(INITIAL_STOCK);
+        assertThat(stockOf(productId)).isEqualTo(0);
+        assertThat(stockOf(otherProductId)).isEqualTo(0);
+    }
+
+    // Runs THREADS * ATTEMPTS_PER_THREAD reservations of one unit from a common start and counts the successes
+    private int race(Runnable reservation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger rejections = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        try {
+                            reservation.run();
+                            successes.incrementAndGet();
+                        } catch (InsufficientStockException ex) {
+                            rejections.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(successes.get() + rejections.get()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD);
+        return successes.get();
+    }
+
+    private Long createProduct(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal("9.99"));
+        product.setStockQuantity(INITIAL_STOCK);
+        return productRepository.save(product).getId();
+    }
+
+    private int stockOf(Long productId) {
+        int stock = productRepository.findStockQuantityById(productId).orElseThrow();
+        assertThat(stock).isGreaterThanOrEqualTo(0);
+        return stock;
+    }
+}
@@ -0,0 +1,28 @@
+package ecommerce.service.impl;
+
+import ecommerce.entity.Order;
+import ecommerce.entity.SalesRollupLock;
+import ecommerce.repository.SalesRollupLockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SalesAnalyticsServiceImplTest {
+
+    // Without the row the shared lock takes nothing and the update could interleave with a rebuild
+    @Test
+    void rollupUpdateFailsWhenTheLockRowIsMissing() {
+        SalesRollupLockRepository salesRollupLockRepository = mock(SalesRollupLockRepository.class);
+        when(salesRollupLockRepository.lockShared(SalesRollupLock.ID)).thenReturn(Optional.empty());
+        SalesAnalyticsServiceImpl salesAnalyticsService = new SalesAnalyticsServiceImpl();
+        ReflectionTestUtils.setField(salesAnalyticsService, "salesRollupLockRepository", salesRollupLockRepository);
+
+        assertThatThrownBy(() -> salesAnalyticsService.recordOrderPlaced(new Order()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
\ No newline at end of file